@@ -1,16 +1,39 @@
 package cy.jdkdigital.trophymanager;
 
+import cy.jdkdigital.trophymanager.client.debug.TrophyRenderStats;
+import cy.jdkdigital.trophymanager.client.debug.TrophyStatsCommand;
+import cy.jdkdigital.trophymanager.client.render.TrophyFramePlan;
+import cy.jdkdigital.trophymanager.client.render.TrophyQualityGovernor;
+import cy.jdkdigital.trophymanager.client.render.TrophySpatialIndex;
+import cy.jdkdigital.trophymanager.client.render.baked.BakedTrophyBatch;
+import cy.jdkdigital.trophymanager.client.render.baked.BakedTrophyCache;
 import cy.jdkdigital.trophymanager.client.render.block.TrophyBlockEntityRenderer;
+import cy.jdkdigital.trophymanager.client.render.entity.PlayerSkinCache;
 import cy.jdkdigital.trophymanager.client.render.entity.PlayerTrophyRenderer;
+import cy.jdkdigital.trophymanager.client.render.entity.TrophyAnimator;
+import cy.jdkdigital.trophymanager.client.render.impostor.TrophyImpostors;
+import cy.jdkdigital.trophymanager.client.render.item.DecodedTrophyCache;
+import cy.jdkdigital.trophymanager.client.render.item.TrophyIconAtlas;
+import cy.jdkdigital.trophymanager.client.render.item.WorldTrophyItems;
+import cy.jdkdigital.trophymanager.client.render.item.WornTrophyBudget;
+import cy.jdkdigital.trophymanager.client.render.model.TrophyBakedModel;
 import cy.jdkdigital.trophymanager.common.block.TrophyBlock;
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityBuildQueue;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityTypeInfo;
 import cy.jdkdigital.trophymanager.common.datamap.NbtMap;
+import cy.jdkdigital.trophymanager.common.entity.RenderPlayer;
+import cy.jdkdigital.trophymanager.common.level.TrophyDisplayLevel;
 import cy.jdkdigital.trophymanager.compat.CuriosCompat;
 import cy.jdkdigital.trophymanager.init.ModBlockEntities;
 import cy.jdkdigital.trophymanager.init.ModBlocks;
+import cy.jdkdigital.trophymanager.init.ModDataComponents;
 import cy.jdkdigital.trophymanager.init.ModEntities;
 //import cy.jdkdigital.trophymanager.network.Networking;
 import cy.jdkdigital.trophymanager.network.PacketOpenGui;
 import cy.jdkdigital.trophymanager.network.PacketUpdateTrophy;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.block.BlockModelShaper;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.core.registries.Registries;
@@ -19,7 +42,6 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
-import net.minecraft.world.entity.monster.Zombie;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.CreativeModeTabs;
 import net.minecraft.world.item.ItemStack;
@@ -27,6 +49,7 @@ import net.minecraft.world.item.enchantment.Enchantment;
 import net.minecraft.world.item.enchantment.EnchantmentHelper;
 import net.minecraft.world.item.enchantment.Enchantments;
 import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
 import net.neoforged.api.distmarker.Dist;
 import net.neoforged.bus.api.IEventBus;
 import net.neoforged.bus.api.SubscribeEvent;
@@ -35,15 +58,25 @@ import net.neoforged.fml.ModList;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.config.ModConfig;
+import net.neoforged.fml.event.lifecycle.FMLClientSetupEvent;
 import net.neoforged.fml.event.lifecycle.FMLCommonSetupEvent;
 import net.neoforged.fml.event.lifecycle.InterModEnqueueEvent;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+import net.neoforged.neoforge.client.event.ClientTickEvent;
+import net.neoforged.neoforge.client.event.CustomizeGuiOverlayEvent;
 import net.neoforged.neoforge.client.event.EntityRenderersEvent;
+import net.neoforged.neoforge.client.event.ModelEvent;
+import net.neoforged.neoforge.client.event.RegisterClientCommandsEvent;
+import net.neoforged.neoforge.client.event.RenderFrameEvent;
+import net.neoforged.neoforge.client.event.RenderLevelStageEvent;
 import net.neoforged.neoforge.common.NeoForge;
 import net.neoforged.neoforge.common.Tags;
 import net.neoforged.neoforge.common.util.FakePlayer;
 import net.neoforged.neoforge.event.BuildCreativeModeTabContentsEvent;
+import net.neoforged.neoforge.event.TagsUpdatedEvent;
 import net.neoforged.neoforge.event.entity.EntityAttributeCreationEvent;
 import net.neoforged.neoforge.event.entity.living.LivingDeathEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
 import net.neoforged.neoforge.network.handling.DirectionalPayloadHandler;
 import net.neoforged.neoforge.network.registration.PayloadRegistrar;
@@ -64,6 +97,8 @@ public class TrophyManager
     public TrophyManager(IEventBus modEventBus, ModContainer modContainer) {
         // Register ourselves for server and other game events we are interested in
         NeoForge.EVENT_BUS.addListener(this::onEntityDeath);
+        NeoForge.EVENT_BUS.addListener(this::onServerStopped);
+        NeoForge.EVENT_BUS.addListener(this::onTagsUpdated);
 //        NeoForge.EVENT_BUS.addListener(this::onAdvancementEarned);
 
         modEventBus.addListener(this::modComms);
@@ -72,8 +107,11 @@ public class TrophyManager
         ModBlocks.ITEMS.register(modEventBus);
         ModBlockEntities.BLOCK_ENTITIES.register(modEventBus);
         ModEntities.ENTITIES.register(modEventBus);
+        ModDataComponents.DATA_COMPONENTS.register(modEventBus);
 
         modContainer.registerConfig(ModConfig.Type.SERVER, TrophyManagerConfig.SERVER_CONFIG);
+        modContainer.registerConfig(ModConfig.Type.COMMON, TrophyManagerConfig.COMMON_CONFIG);
+        modContainer.registerConfig(ModConfig.Type.CLIENT, TrophyManagerConfig.CLIENT_CONFIG);
     }
 
     private void doCommonStuff(final FMLCommonSetupEvent event) {
@@ -86,6 +124,14 @@ public class TrophyManager
         }
     }
 
+    private void onServerStopped(final ServerStoppedEvent event) {
+        TrophyDisplayLevel.unload(false);
+    }
+
+    private void onTagsUpdated(final TagsUpdatedEvent event) {
+        TrophyEntityTypeInfo.clear();
+    }
+
     private void onEntityDeath(final LivingDeathEvent event) {
         Entity deadEntity = event.getEntity();
         Entity source = event.getSource().getEntity();
@@ -139,11 +185,88 @@ public class TrophyManager
     @EventBusSubscriber(modid = MODID, value = Dist.CLIENT, bus = EventBusSubscriber.Bus.MOD)
     public class ClientSetup
     {
+        @SubscribeEvent
+        public static void clientSetup(FMLClientSetupEvent event) {
+            TrophyBlockEntity.setClientPlacementListener(TrophySpatialIndex.INSTANCE);
+        }
+
         @SubscribeEvent
         public static void registerEntityRenderers(EntityRenderersEvent.RegisterRenderers event) {
             event.registerBlockEntityRenderer(ModBlockEntities.TROPHY.get(), TrophyBlockEntityRenderer::new);
             event.registerEntityRenderer(ModEntities.PLAYER.get(), PlayerTrophyRenderer::new);
         }
+
+        @SubscribeEvent
+        public static void modifyBakingResult(ModelEvent.ModifyBakingResult event) {
+            for (BlockState state : ModBlocks.TROPHY.get().getStateDefinition().getPossibleStates()) {
+                event.getModels().computeIfPresent(BlockModelShaper.stateToModelLocation(state), (location, model) -> new TrophyBakedModel(model));
+            }
+        }
+    }
+
+    @EventBusSubscriber(modid = MODID, value = Dist.CLIENT)
+    public static class ClientEventHandler
+    {
+        @SubscribeEvent
+        public static void onRenderFrame(RenderFrameEvent.Pre event) {
+            TrophyRenderStats.beginFrame();
+            WorldTrophyItems.INSTANCE.beginFrame();
+            WornTrophyBudget.INSTANCE.beginFrame();
+            TrophyQualityGovernor.INSTANCE.beginFrame();
+            TrophyFramePlan.INSTANCE.clear();
+            BakedTrophyBatch.INSTANCE.clear();
+            if (!TrophyManagerConfig.CLIENT.bakeEntityTrophies.get()) {
+                BakedTrophyCache.INSTANCE.clear();
+            }
+            TrophyEntityBuildQueue.INSTANCE.process((long) (TrophyManagerConfig.CLIENT.entityBuildBudget.get() * 1_000_000L));
+            TrophyImpostors.INSTANCE.renderPendingTiles();
+            TrophyIconAtlas.INSTANCE.renderPendingTiles();
+        }
+
+        @SubscribeEvent
+        public static void onClientTick(ClientTickEvent.Post event) {
+            if (!Minecraft.getInstance().isPaused()) {
+                TrophyAnimator.INSTANCE.tick();
+            }
+        }
+
+        @SubscribeEvent
+        public static void onRenderLevelStage(RenderLevelStageEvent event) {
+            if (event.getStage() == RenderLevelStageEvent.Stage.AFTER_SKY && Minecraft.getInstance().level != null) {
+                TrophyFramePlan.INSTANCE.prepare(Minecraft.getInstance().level, event.getCamera().getPosition(), event.getFrustum());
+            } else if (event.getStage() == RenderLevelStageEvent.Stage.AFTER_BLOCK_ENTITIES) {
+                BakedTrophyBatch.INSTANCE.flush();
+                BakedTrophyCache.INSTANCE.closeEvicted();
+            }
+        }
+
+        @SubscribeEvent
+        public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+            TrophyEntityBuildQueue.INSTANCE.clear();
+            TrophyDisplayLevel.unload(true);
+            BakedTrophyCache.INSTANCE.clear();
+            TrophyImpostors.INSTANCE.clear();
+            DecodedTrophyCache.INSTANCE.clear();
+            TrophyIconAtlas.INSTANCE.clear();
+            PlayerSkinCache.INSTANCE.clear();
+            TrophyAnimator.INSTANCE.clear();
+            TrophyQualityGovernor.INSTANCE.clear();
+            TrophySpatialIndex.INSTANCE.clear();
+            TrophyFramePlan.INSTANCE.clear();
+        }
+
+        @SubscribeEvent
+        public static void onDebugText(CustomizeGuiOverlayEvent.DebugText event) {
+            if (TrophyRenderStats.isEnabled()) {
+                event.getRight().add("");
+                event.getRight().addAll(TrophyRenderStats.getDebugLines());
+            }
+        }
+
+        @SubscribeEvent
+        public static void registerClientCommands(RegisterClientCommandsEvent event) {
+            TrophyStatsCommand.register(event.getDispatcher());
+        }
     }
 
     @EventBusSubscriber(bus = EventBusSubscriber.Bus.MOD, modid = MODID)
@@ -151,7 +274,7 @@ public class TrophyManager
     {
         @SubscribeEvent
         public static void onEntityAttributeCreate(EntityAttributeCreationEvent event) {
-            event.put(ModEntities.PLAYER.get(), Zombie.createAttributes().build());
+            event.put(ModEntities.PLAYER.get(), RenderPlayer.createAttributes().build());
         }
 
 
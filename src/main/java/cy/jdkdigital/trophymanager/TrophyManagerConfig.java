@@ -8,8 +8,19 @@ public class TrophyManagerConfig
     public static final ModConfigSpec SERVER_CONFIG;
     public static final General GENERAL = new General(SERVER_BUILDER);
 
+    private static final ModConfigSpec.Builder COMMON_BUILDER = new ModConfigSpec.Builder();
+    public static final ModConfigSpec COMMON_CONFIG;
+    public static final Cache CACHE = new Cache(COMMON_BUILDER);
+    public static final Limits LIMITS = new Limits(COMMON_BUILDER);
+
+    private static final ModConfigSpec.Builder CLIENT_BUILDER = new ModConfigSpec.Builder();
+    public static final ModConfigSpec CLIENT_CONFIG;
+    public static final Client CLIENT = new Client(CLIENT_BUILDER);
+
     static {
         SERVER_CONFIG = SERVER_BUILDER.build();
+        COMMON_CONFIG = COMMON_BUILDER.build();
+        CLIENT_CONFIG = CLIENT_BUILDER.build();
     }
 
     public static class General
@@ -96,4 +107,149 @@ public class TrophyManagerConfig
             builder.pop();
         }
     }
+
+    public static class Cache
+    {
+        public final ModConfigSpec.IntValue maxEntities;
+        public final ModConfigSpec.IntValue maxMegabytes;
+
+        public Cache(ModConfigSpec.Builder builder) {
+            builder.push("Cache");
+
+            maxEntities = builder
+                    .comment("Maximum number of trophy entities kept in memory. Least recently used entities are dropped first.")
+                    .defineInRange("maxEntities", 512, 1, Integer.MAX_VALUE);
+
+            maxMegabytes = builder
+                    .comment("Approximate memory budget in megabytes for cached trophy entities.")
+                    .defineInRange("maxMegabytes", 128, 1, Integer.MAX_VALUE);
+
+            builder.pop();
+        }
+    }
+
+    public static class Limits
+    {
+        public final ModConfigSpec.IntValue maxEntityBytes;
+        public final ModConfigSpec.IntValue maxPassengers;
+        public final ModConfigSpec.IntValue maxPassengerDepth;
+
+        public Limits(ModConfigSpec.Builder builder) {
+            builder.push("Limits");
+
+            maxEntityBytes = builder
+                    .comment("Maximum size in bytes of the entity data on a trophy. Larger trophies are shown as a placeholder.")
+                    .defineInRange("maxEntityBytes", 65536, 1024, Integer.MAX_VALUE);
+
+            maxPassengers = builder
+                    .comment("Maximum number of passengers riding a trophy entity, including passengers of passengers.")
+                    .defineInRange("maxPassengers", 16, 0, Integer.MAX_VALUE);
+
+            maxPassengerDepth = builder
+                    .comment("Maximum number of passengers stacked on top of each other on a trophy entity.")
+                    .defineInRange("maxPassengerDepth", 4, 0, 256);
+
+            builder.pop();
+        }
+    }
+
+    public static class Client
+    {
+        public final ModConfigSpec.DoubleValue entityBuildBudget;
+        public final ModConfigSpec.IntValue viewDistance;
+        public final ModConfigSpec.BooleanValue renderDiagnostics;
+        public final ModConfigSpec.BooleanValue bakeEntityTrophies;
+        public final ModConfigSpec.IntValue maxBakedTrophies;
+        public final ModConfigSpec.IntValue impostorDistance;
+        public final ModConfigSpec.IntValue impostorFadeDistance;
+        public final ModConfigSpec.BooleanValue cacheGuiIcons;
+        public final ModConfigSpec.EnumValue<WorldItemRender> worldItemRender;
+        public final ModConfigSpec.IntValue worldItemThreshold;
+        public final ModConfigSpec.IntValue worldItemRange;
+        public final ModConfigSpec.IntValue wornTrophyBudget;
+        public final ModConfigSpec.IntValue maxPlayerSkins;
+        public final ModConfigSpec.ConfigValue<String> skinProfileSource;
+        public final ModConfigSpec.IntValue animationDistance;
+        public final ModConfigSpec.IntValue animationBudget;
+        public final ModConfigSpec.IntValue targetFrameRate;
+
+        public Client(ModConfigSpec.Builder builder) {
+            builder.push("Client");
+
+            entityBuildBudget = builder
+                    .comment("Time in milliseconds per frame spent building trophy entities. Trophies show only their base until their entity is built.")
+                    .defineInRange("entityBuildBudget", 2.0, 0.1, 1000);
+
+            viewDistance = builder
+                    .comment("Distance in blocks at which trophies stop rendering.")
+                    .defineInRange("viewDistance", 128, 16, 1024);
+
+            renderDiagnostics = builder
+                    .comment("Measure trophy render times. Results are shown on the debug screen and with the /trophymanager stats command.")
+                    .define("renderDiagnostics", false);
+
+            bakeEntityTrophies = builder
+                    .comment("[Experimental] Record placed entity trophies once into GPU buffers and redraw those instead of rendering the entity every frame. Trophies are shown frozen and may not work with shader packs.")
+                    .define("bakeEntityTrophies", false);
+
+            maxBakedTrophies = builder
+                    .comment("Maximum number of baked entity trophies kept on the GPU.")
+                    .defineInRange("maxBakedTrophies", 256, 1, 65536);
+
+            impostorDistance = builder
+                    .comment("Distance in blocks from which entity trophies are drawn as flat sprites instead of the full model. 0 disables sprites.")
+                    .defineInRange("impostorDistance", 64, 0, 1024);
+
+            impostorFadeDistance = builder
+                    .comment("Distance in blocks over which sprites fade in before fully replacing the model.")
+                    .defineInRange("impostorFadeDistance", 8, 0, 1024);
+
+            cacheGuiIcons = builder
+                    .comment("Draw trophies in inventories from an icon rendered once instead of rendering them every frame. The hovered and held trophy are still rendered live.")
+                    .define("cacheGuiIcons", true);
+
+            worldItemRender = builder
+                    .comment("Simplified render for trophies shown as dropped items, in item frames or display entities once there are too many of them. ICON draws a flat icon, IMPOSTOR an icon facing the camera, BASE only the base block and FULL always renders the whole trophy.")
+                    .defineEnum("worldItemRender", WorldItemRender.IMPOSTOR);
+
+            worldItemThreshold = builder
+                    .comment("Number of trophies shown as world items within worldItemRange before they switch to the simplified render.")
+                    .defineInRange("worldItemThreshold", 32, 0, Integer.MAX_VALUE);
+
+            worldItemRange = builder
+                    .comment("Distance in blocks within which trophies shown as world items are counted.")
+                    .defineInRange("worldItemRange", 32, 1, 1024);
+
+            wornTrophyBudget = builder
+                    .comment("Number of trophies worn on the head or in curios slots rendered in full per frame, the largest on screen first. Others are drawn as a cached icon.")
+                    .defineInRange("wornTrophyBudget", 16, 0, 1024);
+
+            maxPlayerSkins = builder
+                    .comment("Number of player skins kept loaded for player trophies. Profiles and skins are also cached in the trophymanager folder of the game directory.")
+                    .defineInRange("maxPlayerSkins", 128, 1, 4096);
+
+            skinProfileSource = builder
+                    .comment("Folder to read player profiles from as <uuid>.json instead of asking the session server, or offline to use default skins without any lookup. Profiles from these are not cached. Leave empty to use the session server.")
+                    .define("skinProfileSource", "");
+
+            animationDistance = builder
+                    .comment("Distance in blocks within which placed entity trophies play idle animations. Trophies within half the distance animate every tick, further ones at a reduced rate. 0 disables animations.")
+                    .defineInRange("animationDistance", 16, 0, 256);
+
+            animationBudget = builder
+                    .comment("Maximum number of trophy entities animated per tick, the nearest first. Others hold their pose.")
+                    .defineInRange("animationBudget", 64, 0, 4096);
+
+            targetFrameRate = builder
+                    .comment("Frame rate to keep while trophies are on screen. Below it, the least visible and most expensive trophies lose passengers and equipment, then switch to sprites, then stop rendering beyond half the view distance, until frames recover. Frames while the window is inactive, with vsync on or with a frame rate limit below the target are not measured. 0 disables.")
+                    .defineInRange("targetFrameRate", 0, 0, 1000);
+
+            builder.pop();
+        }
+    }
+
+    public enum WorldItemRender
+    {
+        FULL, ICON, IMPOSTOR, BASE
+    }
 }
\ No newline at end of file
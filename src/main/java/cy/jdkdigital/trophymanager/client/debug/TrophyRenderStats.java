@@ -0,0 +1,121 @@
+package cy.jdkdigital.trophymanager.client.debug;
+
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.client.render.TrophyFramePlan;
+import cy.jdkdigital.trophymanager.client.render.TrophyQualityGovernor;
+import cy.jdkdigital.trophymanager.client.render.TrophySpatialIndex;
+import cy.jdkdigital.trophymanager.client.render.baked.BakedTrophyCache;
+import cy.jdkdigital.trophymanager.client.render.entity.TrophyAnimator;
+import cy.jdkdigital.trophymanager.client.render.impostor.TrophyImpostors;
+import cy.jdkdigital.trophymanager.client.render.item.DecodedTrophyCache;
+import cy.jdkdigital.trophymanager.client.render.item.TrophyIconAtlas;
+import cy.jdkdigital.trophymanager.client.render.item.WorldTrophyItems;
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityBuildQueue;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityCache;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.registries.BuiltInRegistries;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects trophy render timings for the debug overlay and the stats command when render diagnostics are enabled
+ */
+public class TrophyRenderStats
+{
+    // Trophies not rendered for this many frames are dropped from the ranking
+    private static final int STALE_FRAMES = 100;
+    // Weight of the newest sample in the running average
+    private static final double SAMPLE_WEIGHT = 0.1;
+
+    private static final Map<BlockPos, Sample> samples = new HashMap<>();
+    private static boolean enabled = false;
+    private static long frame = 0;
+    // Placed trophies and trophy items, in hand, in GUIs and worn, are counted apart
+    private static int placedThisFrame = 0;
+    private static int placedLastFrame = 0;
+    private static int itemsThisFrame = 0;
+    private static int itemsLastFrame = 0;
+
+    public static void beginFrame() {
+        enabled = TrophyManagerConfig.CLIENT.renderDiagnostics.get();
+        frame++;
+        placedLastFrame = placedThisFrame;
+        placedThisFrame = 0;
+        itemsLastFrame = itemsThisFrame;
+        itemsThisFrame = 0;
+        if (!enabled && !samples.isEmpty()) {
+            samples.clear();
+        }
+    }
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void record(TrophyBlockEntity trophy, long nanos) {
+        if (!trophy.isPlaced()) {
+            itemsThisFrame++;
+            return;
+        }
+        placedThisFrame++;
+        Sample sample = samples.computeIfAbsent(trophy.getBlockPos(), pos -> new Sample(pos, describe(trophy)));
+        sample.averageNanos = sample.lastFrame == 0 ? nanos : sample.averageNanos + (nanos - sample.averageNanos) * SAMPLE_WEIGHT;
+        sample.lastFrame = frame;
+    }
+
+    public static List<Sample> getMostExpensive(int count) {
+        samples.values().removeIf(sample -> frame - sample.lastFrame > STALE_FRAMES);
+        List<Sample> ranking = new ArrayList<>(samples.values());
+        ranking.sort(Comparator.comparingDouble((Sample sample) -> sample.averageNanos).reversed());
+        return ranking.subList(0, Math.min(count, ranking.size()));
+    }
+
+    public static List<String> getDebugLines() {
+        if (Minecraft.getInstance().level == null) {
+            return List.of();
+        }
+        TrophyEntityCache cache = TrophyEntityCache.forLevel(Minecraft.getInstance().level);
+        long lookups = cache.getHits() + cache.getMisses();
+        return List.of(
+                String.format("Trophies: %d placed and %d items rendered, %d cached, %.1f MB, %d queued, %d baked, %d sprites, %d decoded, %d icons, %d world items, %d animated, %d indexed, %d planned, %.0f%% reduced", placedLastFrame, itemsLastFrame, cache.size(), cache.getTotalBytes() / 1048576D, TrophyEntityBuildQueue.INSTANCE.size(), BakedTrophyCache.INSTANCE.size(), TrophyImpostors.INSTANCE.size(), DecodedTrophyCache.INSTANCE.size(), TrophyIconAtlas.INSTANCE.size(), WorldTrophyItems.INSTANCE.getCount(), TrophyAnimator.INSTANCE.size(), TrophySpatialIndex.INSTANCE.size(), TrophyFramePlan.INSTANCE.size(), TrophyQualityGovernor.INSTANCE.getPressure() * 100F),
+                String.format("Trophy cache: %.1f%% hits, %d evictions, %d built, %.2f ms avg build%s", lookups > 0 ? cache.getHits() * 100D / lookups : 0D, cache.getEvictions(), cache.getBuilds(), cache.getBuilds() > 0 ? cache.getBuildNanos() / 1_000_000D / cache.getBuilds() : 0D, cache.isHeldOverBudget() ? ", held entities over budget" : "")
+        );
+    }
+
+    public static void reset() {
+        samples.clear();
+        if (Minecraft.getInstance().level != null) {
+            TrophyEntityCache.forLevel(Minecraft.getInstance().level).resetStats();
+        }
+    }
+
+    private static String describe(TrophyBlockEntity trophy) {
+        if (trophy.trophyType.equals("entity") && trophy.entity != null) {
+            return trophy.entity.getString("entityType");
+        }
+        return trophy.item != null ? BuiltInRegistries.ITEM.getKey(trophy.item.getItem()).toString() : trophy.trophyType;
+    }
+
+    public static class Sample
+    {
+        public final BlockPos pos;
+        public final String type;
+        private double averageNanos = 0;
+        private long lastFrame = 0;
+
+        private Sample(BlockPos pos, String type) {
+            this.pos = pos;
+            this.type = type;
+        }
+
+        public double getAverageMillis() {
+            return averageNanos / 1_000_000D;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package cy.jdkdigital.trophymanager.client.debug;
+
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+import java.util.List;
+
+public class TrophyStatsCommand
+{
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(Commands.literal("trophymanager")
+                .then(Commands.literal("stats")
+                        .executes(context -> showStats(context.getSource(), 10))
+                        .then(Commands.argument("count", IntegerArgumentType.integer(1, 100))
+                                .executes(context -> showStats(context.getSource(), IntegerArgumentType.getInteger(context, "count"))))
+                        .then(Commands.literal("reset")
+                                .executes(context -> {
+                                    TrophyRenderStats.reset();
+                                    context.getSource().sendSuccess(() -> Component.translatable("trophymanager.command.stats.reset"), false);
+                                    return 1;
+                                }))));
+    }
+
+    private static int showStats(CommandSourceStack source, int count) {
+        if (!TrophyRenderStats.isEnabled()) {
+            source.sendFailure(Component.translatable("trophymanager.command.stats.disabled"));
+            return 0;
+        }
+
+        TrophyRenderStats.getDebugLines().forEach(line -> source.sendSuccess(() -> Component.literal(line), false));
+
+        List<TrophyRenderStats.Sample> ranking = TrophyRenderStats.getMostExpensive(count);
+        source.sendSuccess(() -> Component.translatable("trophymanager.command.stats.header", ranking.size()), false);
+        for (TrophyRenderStats.Sample sample : ranking) {
+            source.sendSuccess(() -> Component.translatable("trophymanager.command.stats.entry", sample.type, sample.pos.toShortString(), String.format("%.3f", sample.getAverageMillis())), false);
+        }
+        return ranking.size();
+    }
+}
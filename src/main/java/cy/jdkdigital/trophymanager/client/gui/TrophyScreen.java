@@ -71,6 +71,7 @@ public class TrophyScreen extends Screen
         if (trophy.scale < TrophyManagerConfig.GENERAL.maxSize.get() * -1) {
             trophy.scale = TrophyManagerConfig.GENERAL.maxSize.get().floatValue() * -1;
         }
+        trophy.updateDisplayData();
     }
 
     private void adjustOffsetY(double d) {
@@ -84,6 +85,7 @@ public class TrophyScreen extends Screen
         if (trophy.offsetY < TrophyManagerConfig.GENERAL.maxYOffset.get() * -1) {
             trophy.offsetY = TrophyManagerConfig.GENERAL.maxYOffset.get() * -1;
         }
+        trophy.updateDisplayData();
     }
 
     public static void open(BlockPos pos) {
@@ -0,0 +1,110 @@
+package cy.jdkdigital.trophymanager.client.render;
+
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.client.render.impostor.TrophyImpostors;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.culling.Frustum;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+
+/**
+ * Level of detail decisions for every placed trophy in view, prepared once per frame before the level is drawn so
+ * the renderer only looks them up. The plan is cleared at the start of each frame, trophies missing from it, like ones
+ * loaded mid frame, are planned when they're first looked up. Render thread only.
+ */
+public class TrophyFramePlan
+{
+    public static final TrophyFramePlan INSTANCE = new TrophyFramePlan();
+
+    // Render bounds of trophies reach past their block, see TrophyBlockEntity#getRenderBounds
+    private static final double VISIBILITY_MARGIN = 2D;
+
+    private final Long2ObjectOpenHashMap<Entry> entries = new Long2ObjectOpenHashMap<>();
+    @Nullable
+    private Settings settings = null;
+
+    /**
+     * Plans the trophies within the view distance that are in the frustum
+     */
+    public void prepare(Level level, Vec3 camera, Frustum frustum) {
+        Settings settings = Settings.of(camera);
+        this.settings = settings;
+        entries.clear();
+
+        TrophySpatialIndex.INSTANCE.forEachNear(level, camera, settings.viewDistance(), pos -> {
+            Entry entry = planIfVisible(pos, frustum, settings);
+            if (entry != null) {
+                entries.put(pos, entry);
+            }
+        });
+    }
+
+    public Entry get(BlockPos pos) {
+        Entry entry = entries.get(pos.asLong());
+        if (entry == null) {
+            if (settings == null) {
+                settings = Settings.of(Minecraft.getInstance().gameRenderer.getMainCamera().getPosition());
+            }
+            entry = plan(pos.asLong(), settings);
+            entries.put(pos.asLong(), entry);
+        }
+        return entry;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public void clear() {
+        entries.clear();
+        settings = null;
+    }
+
+    @Nullable
+    private static Entry planIfVisible(long pos, Frustum frustum, Settings settings) {
+        int x = BlockPos.getX(pos);
+        int y = BlockPos.getY(pos);
+        int z = BlockPos.getZ(pos);
+        AABB bounds = new AABB(x - VISIBILITY_MARGIN, y - VISIBILITY_MARGIN, z - VISIBILITY_MARGIN, x + 1 + VISIBILITY_MARGIN, y + 1 + VISIBILITY_MARGIN, z + 1 + VISIBILITY_MARGIN);
+        return frustum.isVisible(bounds) ? plan(pos, settings) : null;
+    }
+
+    private static Entry plan(long pos, Settings settings) {
+        double dx = BlockPos.getX(pos) + 0.5D - settings.camera().x;
+        double dy = BlockPos.getY(pos) + 0.5D - settings.camera().y;
+        double dz = BlockPos.getZ(pos) + 0.5D - settings.camera().z;
+        double distanceSqr = dx * dx + dy * dy + dz * dz;
+
+        float degradation = TrophyQualityGovernor.INSTANCE.getDegradation(pos);
+        boolean isCulled = degradation > TrophyQualityGovernor.CULL_DEGRADATION && distanceSqr > settings.cullDistanceSqr();
+        float impostorFade = TrophyImpostors.getFade(Math.sqrt(distanceSqr), settings.impostorDistance(), settings.impostorFadeDistance());
+        if (settings.impostorDistance() > 0 && degradation > TrophyQualityGovernor.IMPOSTOR_DEGRADATION) {
+            impostorFade = 1;
+        }
+        return new Entry(distanceSqr, isCulled, impostorFade, degradation <= 0);
+    }
+
+    /**
+     * @param impostorFade how much of the sprite to show over entity trophies, see {@link TrophyImpostors}
+     * @param isDetailed whether passengers and equipment are drawn, see {@link TrophyQualityGovernor}
+     */
+    public record Entry(double distanceSqr, boolean isCulled, float impostorFade, boolean isDetailed)
+    {
+    }
+
+    /**
+     * Config and camera read once per frame
+     */
+    private record Settings(Vec3 camera, int viewDistance, double cullDistanceSqr, int impostorDistance, int impostorFadeDistance)
+    {
+        static Settings of(Vec3 camera) {
+            int viewDistance = TrophyManagerConfig.CLIENT.viewDistance.get();
+            return new Settings(camera, viewDistance, viewDistance * viewDistance / 4D, TrophyManagerConfig.CLIENT.impostorDistance.get(), TrophyManagerConfig.CLIENT.impostorFadeDistance.get());
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package cy.jdkdigital.trophymanager.client.render;
+
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.client.render.block.TrophyRenderState;
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import it.unimi.dsi.fastutil.longs.Long2FloatOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import net.minecraft.client.Minecraft;
+import net.minecraft.core.BlockPos;
+import net.minecraft.world.phys.Vec3;
+
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Lowers the quality of placed trophies while frames take longer than the target frame rate allows and restores it
+ * once they recover. The pressure grows and shrinks in steps, and trophies around the camera are ranked least visible
+ * and most expensive first, so the first ranks lose passengers and equipment, then switch to sprites, then stop
+ * rendering beyond half the view distance. Frames that don't reflect rendering cost, like ones held back by the frame
+ * limiter or vsync or drawn while the window is inactive, are left out and keep the current pressure. Render thread
+ * only.
+ */
+public class TrophyQualityGovernor
+{
+    public static final TrophyQualityGovernor INSTANCE = new TrophyQualityGovernor();
+    // Degradation above which trophies are drawn as sprites and above which they are culled beyond half the view distance
+    public static final float IMPOSTOR_DEGRADATION = 1 / 3F;
+    public static final float CULL_DEGRADATION = 2 / 3F;
+
+    private static final float STEP = 0.1F;
+    private static final long RAISE_DELAY = 250_000_000L;
+    private static final long LOWER_DELAY = 1_000_000_000L;
+    private static final int RANK_INTERVAL = 20;
+    // Frame rate limit option value that means unlimited
+    private static final int UNLIMITED_FRAME_RATE = 260;
+
+    // Rank of each trophy around the camera from 0, least visible and most expensive, to 1
+    private final Long2FloatOpenHashMap ranks = new Long2FloatOpenHashMap();
+    private long lastFrame = 0;
+    private double averageFrameNanos = 0;
+    private long overBudgetSince = 0;
+    private long underBudgetSince = 0;
+    private float pressure = 0;
+    private int frame = 0;
+
+    public TrophyQualityGovernor() {
+        ranks.defaultReturnValue(1F);
+    }
+
+    public void beginFrame() {
+        long now = System.nanoTime();
+        long frameNanos = lastFrame != 0 ? now - lastFrame : 0;
+        lastFrame = now;
+
+        int targetFrameRate = TrophyManagerConfig.CLIENT.targetFrameRate.get();
+        if (targetFrameRate <= 0 || Minecraft.getInstance().level == null) {
+            clear();
+            averageFrameNanos = 0;
+            return;
+        }
+        if (isFrameTimeLimited(targetFrameRate)) {
+            overBudgetSince = 0;
+            underBudgetSince = 0;
+            return;
+        }
+        if (frameNanos > 0) {
+            averageFrameNanos = averageFrameNanos == 0 ? frameNanos : averageFrameNanos * 0.9D + frameNanos * 0.1D;
+        }
+
+        double targetNanos = 1_000_000_000D / targetFrameRate;
+        if (averageFrameNanos > targetNanos * 1.1D) {
+            underBudgetSince = 0;
+            if (overBudgetSince == 0) {
+                overBudgetSince = now;
+            } else if (now - overBudgetSince > RAISE_DELAY && pressure < 1) {
+                pressure = Math.min(1F, pressure + STEP);
+                overBudgetSince = now;
+            }
+        } else if (averageFrameNanos < targetNanos * 0.8D && pressure > 0) {
+            overBudgetSince = 0;
+            if (underBudgetSince == 0) {
+                underBudgetSince = now;
+            } else if (now - underBudgetSince > LOWER_DELAY) {
+                pressure = Math.max(0F, pressure - STEP);
+                underBudgetSince = now;
+            }
+        } else {
+            overBudgetSince = 0;
+            underBudgetSince = 0;
+        }
+
+        if (pressure <= 0) {
+            ranks.clear();
+        } else if (frame++ % RANK_INTERVAL == 0) {
+            rank();
+        }
+    }
+
+    public float getPressure() {
+        return pressure;
+    }
+
+    public void clear() {
+        ranks.clear();
+        pressure = 0;
+        overBudgetSince = 0;
+        underBudgetSince = 0;
+    }
+
+    /**
+     * How much the trophy at the packed position is degraded from 0, not at all, to 1. Trophies not ranked yet keep
+     * full quality. Also called while planning the frame, see {@link TrophyFramePlan}.
+     */
+    public float getDegradation(long pos) {
+        if (pressure <= 0) {
+            return 0;
+        }
+        float rank = ranks.get(pos);
+        return rank < pressure ? (pressure - rank) / pressure : 0;
+    }
+
+    private void rank() {
+        Minecraft minecraft = Minecraft.getInstance();
+        if (minecraft.level == null) {
+            return;
+        }
+        Vec3 camera = getCameraPosition();
+        double range = TrophyManagerConfig.CLIENT.viewDistance.get();
+
+        List<Ranked> trophies = new ObjectArrayList<>();
+        TrophySpatialIndex.INSTANCE.forEachNear(minecraft.level, camera, range, packedPos -> {
+            BlockPos pos = BlockPos.of(packedPos);
+            if (minecraft.level.getBlockEntity(pos) instanceof TrophyBlockEntity trophy) {
+                double distance = Math.sqrt(camera.distanceToSqr(Vec3.atCenterOf(pos)));
+                double size = Math.max(trophy.getRenderBounds().getSize(), 0.1D);
+                trophies.add(new Ranked(packedPos, (float) (getCost(trophy) * distance / size)));
+            }
+        });
+        trophies.sort(Comparator.comparingDouble(Ranked::score).reversed());
+
+        ranks.clear();
+        for (int i = 0; i < trophies.size(); i++) {
+            ranks.put(trophies.get(i).pos(), i / (float) trophies.size());
+        }
+    }
+
+    /**
+     * Whether frame time is set by something other than rendering, frames wait for vsync or a frame rate limit that
+     * could hold them below the target, and inactive windows may be throttled
+     */
+    private static boolean isFrameTimeLimited(int targetFrameRate) {
+        Minecraft minecraft = Minecraft.getInstance();
+        int limit = minecraft.getWindow().getFramerateLimit();
+        return !minecraft.isWindowActive() || minecraft.options.enableVsync().get() || (limit < UNLIMITED_FRAME_RATE && limit < targetFrameRate * 1.25D);
+    }
+
+    /**
+     * Rough relative cost of drawing a trophy, entities with passengers and multipart dragons cost the most
+     */
+    private static float getCost(TrophyBlockEntity trophy) {
+        TrophyRenderState state = TrophyRenderState.get(trophy);
+        if (state.type() != TrophyRenderState.Type.ENTITY) {
+            return state.isItemMeshed() ? 0.1F : 0.5F;
+        }
+        float cost = 1 + trophy.getPassengerCount();
+        return state.isDragon() ? cost * 8 : cost;
+    }
+
+    private static Vec3 getCameraPosition() {
+        return Minecraft.getInstance().gameRenderer.getMainCamera().getPosition();
+    }
+
+    private record Ranked(long pos, float score)
+    {
+    }
+}
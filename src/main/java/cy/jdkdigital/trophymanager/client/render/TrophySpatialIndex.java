@@ -0,0 +1,129 @@
+package cy.jdkdigital.trophymanager.client.render;
+
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.SectionPos;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.phys.Vec3;
+
+import javax.annotation.Nullable;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.LongConsumer;
+
+/**
+ * Positions of the trophies placed in the client level, grouped by chunk section so trophies around the camera can be
+ * found without going through every block entity. Trophies can be added and removed from any thread, as block entities
+ * load with their chunk, the changes are queued and applied on the render thread before the index is read.
+ */
+public class TrophySpatialIndex implements TrophyBlockEntity.PlacementListener
+{
+    public static final TrophySpatialIndex INSTANCE = new TrophySpatialIndex();
+
+    private final Long2ObjectOpenHashMap<LongSet> sections = new Long2ObjectOpenHashMap<>();
+    private final Queue<Change> changes = new ConcurrentLinkedQueue<>();
+    @Nullable
+    private Level level = null;
+    private int size = 0;
+
+    @Override
+    public void add(Level level, BlockPos pos) {
+        changes.add(new Change(level, pos.asLong(), true));
+    }
+
+    @Override
+    public void remove(Level level, BlockPos pos) {
+        changes.add(new Change(level, pos.asLong(), false));
+    }
+
+    private void applyChanges() {
+        Change change;
+        while ((change = changes.poll()) != null) {
+            if (change.isAdded()) {
+                apply(change.level(), change.pos());
+            } else {
+                unapply(change.level(), change.pos());
+            }
+        }
+    }
+
+    private void apply(Level level, long pos) {
+        if (level != this.level) {
+            sections.clear();
+            size = 0;
+            this.level = level;
+        }
+        if (sections.computeIfAbsent(SectionPos.blockToSection(pos), k -> new LongOpenHashSet()).add(pos)) {
+            size++;
+        }
+    }
+
+    private void unapply(Level level, long pos) {
+        if (level != this.level) {
+            return;
+        }
+        long section = SectionPos.blockToSection(pos);
+        LongSet positions = sections.get(section);
+        if (positions != null && positions.remove(pos)) {
+            size--;
+            if (positions.isEmpty()) {
+                sections.remove(section);
+            }
+        }
+    }
+
+    /**
+     * Calls the consumer with the packed position of every trophy in the sections within range of the center
+     */
+    public void forEachNear(Level level, Vec3 center, double range, LongConsumer consumer) {
+        applyChanges();
+        if (level != this.level || sections.isEmpty()) {
+            return;
+        }
+        int radius = SectionPos.posToSectionCoord(range) + 1;
+        int centerX = SectionPos.posToSectionCoord(center.x);
+        int centerY = SectionPos.posToSectionCoord(center.y);
+        int centerZ = SectionPos.posToSectionCoord(center.z);
+        int diameter = 2 * radius + 1;
+        if (sections.size() < diameter * diameter * diameter) {
+            // Fewer sections with trophies than sections in range, filter them instead
+            for (Long2ObjectMap.Entry<LongSet> entry : sections.long2ObjectEntrySet()) {
+                long section = entry.getLongKey();
+                if (Math.abs(SectionPos.x(section) - centerX) <= radius && Math.abs(SectionPos.y(section) - centerY) <= radius && Math.abs(SectionPos.z(section) - centerZ) <= radius) {
+                    entry.getValue().forEach(consumer);
+                }
+            }
+            return;
+        }
+        for (int x = centerX - radius; x <= centerX + radius; x++) {
+            for (int z = centerZ - radius; z <= centerZ + radius; z++) {
+                for (int y = centerY - radius; y <= centerY + radius; y++) {
+                    LongSet positions = sections.get(SectionPos.asLong(x, y, z));
+                    if (positions != null) {
+                        positions.forEach(consumer);
+                    }
+                }
+            }
+        }
+    }
+
+    public int size() {
+        applyChanges();
+        return size;
+    }
+
+    public void clear() {
+        changes.clear();
+        sections.clear();
+        level = null;
+        size = 0;
+    }
+
+    private record Change(Level level, long pos, boolean isAdded)
+    {
+    }
+}
@@ -0,0 +1,225 @@
+package cy.jdkdigital.trophymanager.client.render;
+
+import com.mojang.blaze3d.pipeline.TextureTarget;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.VertexSorting;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.texture.AbstractTexture;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import org.joml.Matrix4f;
+import org.joml.Matrix4fStack;
+import org.lwjgl.opengl.GL11;
+
+import javax.annotation.Nullable;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Square tiles rendered offscreen into a shared texture, used for trophy sprites and icons. When the atlas is full the
+ * least recently drawn tile is replaced, tiles drawn last frame are still on screen and are kept. The render target
+ * is created with the first tile. Render thread only.
+ */
+public class TrophyTileAtlas<K, T extends TrophyTileAtlas.Tile>
+{
+    private final ResourceLocation location;
+    private final int atlasSize;
+    private final int tileSize;
+    private final int tilesPerRow;
+    private final int maxTiles;
+    private final Map<K, T> tiles = new HashMap<>();
+    private final BitSet usedSlots;
+    @Nullable
+    private TextureTarget target = null;
+    @Nullable
+    private ByteBufferBuilder tileBuffer = null;
+    private long frame = 0;
+
+    // State of the main render pass, saved while tiles are rendered
+    private final Matrix4f savedProjection = new Matrix4f();
+    @Nullable
+    private VertexSorting savedVertexSorting = null;
+
+    public TrophyTileAtlas(ResourceLocation location, int atlasSize, int tileSize) {
+        this.location = location;
+        this.atlasSize = atlasSize;
+        this.tileSize = tileSize;
+        this.tilesPerRow = atlasSize / tileSize;
+        this.maxTiles = tilesPerRow * tilesPerRow;
+        this.usedSlots = new BitSet(maxTiles);
+    }
+
+    public void nextFrame() {
+        frame++;
+    }
+
+    /**
+     * Returns the tile for the key and marks it as drawn this frame
+     */
+    @Nullable
+    public T get(K key) {
+        T tile = tiles.get(key);
+        if (tile != null) {
+            tile.lastUsed = frame;
+        }
+        return tile;
+    }
+
+    public boolean contains(K key) {
+        return tiles.containsKey(key);
+    }
+
+    public void put(K key, T tile) {
+        tile.lastUsed = frame;
+        tiles.put(key, tile);
+    }
+
+    /**
+     * Returns a free slot, replacing the least recently drawn tile when the atlas is full, or -1 when every tile is
+     * still on screen
+     */
+    public int allocateSlot() {
+        int slot = usedSlots.nextClearBit(0);
+        if (slot < maxTiles) {
+            usedSlots.set(slot);
+            return slot;
+        }
+        Map.Entry<K, T> oldest = null;
+        for (Map.Entry<K, T> entry : tiles.entrySet()) {
+            if (entry.getValue().lastUsed < frame - 1 && (oldest == null || entry.getValue().lastUsed < oldest.getValue().lastUsed)) {
+                oldest = entry;
+            }
+        }
+        if (oldest == null) {
+            return -1;
+        }
+        tiles.remove(oldest.getKey());
+        return oldest.getValue().slot;
+    }
+
+    public float getU(int slot) {
+        return (slot % tilesPerRow) / (float) tilesPerRow;
+    }
+
+    // Render targets are stored bottom row first
+    public float getV(int slot) {
+        return (slot / tilesPerRow) / (float) tilesPerRow;
+    }
+
+    /**
+     * Size of a tile in texture coordinates
+     */
+    public float getTileSpan() {
+        return 1F / tilesPerRow;
+    }
+
+    /**
+     * Binds the atlas for rendering tiles with an identity model view, creating it first if needed. Must be followed
+     * by {@link #end}, which puts back the main render target, model view and projection.
+     */
+    public void begin() {
+        if (target == null) {
+            target = new TextureTarget(atlasSize, atlasSize, true, Minecraft.ON_OSX);
+            target.setClearColor(0, 0, 0, 0);
+            target.clear(Minecraft.ON_OSX);
+            tileBuffer = new ByteBufferBuilder(256 * 1024);
+            Minecraft.getInstance().getTextureManager().register(location, new AtlasTexture(target));
+        }
+
+        savedProjection.set(RenderSystem.getProjectionMatrix());
+        savedVertexSorting = RenderSystem.getVertexSorting();
+        Matrix4fStack modelViewStack = RenderSystem.getModelViewStack();
+        modelViewStack.pushMatrix();
+        modelViewStack.identity();
+        RenderSystem.applyModelViewMatrix();
+        target.bindWrite(false);
+    }
+
+    /**
+     * Clears the tile in the slot and limits drawing to it, returns the buffer source to draw the tile with
+     */
+    public MultiBufferSource.BufferSource beginTile(int slot) {
+        int x = (slot % tilesPerRow) * tileSize;
+        int y = (slot / tilesPerRow) * tileSize;
+        RenderSystem.viewport(x, y, tileSize, tileSize);
+        RenderSystem.enableScissor(x, y, tileSize, tileSize);
+        RenderSystem.clearColor(0, 0, 0, 0);
+        RenderSystem.clear(GL11.GL_COLOR_BUFFER_BIT | GL11.GL_DEPTH_BUFFER_BIT, Minecraft.ON_OSX);
+        RenderSystem.disableScissor();
+        return MultiBufferSource.immediate(tileBuffer);
+    }
+
+    public void end() {
+        Minecraft.getInstance().getMainRenderTarget().bindWrite(true);
+        RenderSystem.getModelViewStack().popMatrix();
+        RenderSystem.applyModelViewMatrix();
+        RenderSystem.setProjectionMatrix(savedProjection, savedVertexSorting);
+    }
+
+    public int size() {
+        return tiles.size();
+    }
+
+    /**
+     * Drops all tiles, the atlas is kept
+     */
+    public void clearTiles() {
+        tiles.clear();
+        usedSlots.clear();
+    }
+
+    /**
+     * Drops all tiles and frees the atlas and its buffers, they are created again when the next tile is rendered
+     */
+    public void clear() {
+        clearTiles();
+        if (target != null) {
+            Minecraft.getInstance().getTextureManager().release(location);
+            target.destroyBuffers();
+            target = null;
+        }
+        if (tileBuffer != null) {
+            tileBuffer.close();
+            tileBuffer = null;
+        }
+    }
+
+    public static class Tile
+    {
+        public final int slot;
+        private long lastUsed;
+
+        public Tile(int slot) {
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Exposes the atlas render target to the texture manager so render types can bind it
+     */
+    private static class AtlasTexture extends AbstractTexture
+    {
+        private final TextureTarget target;
+
+        private AtlasTexture(TextureTarget target) {
+            this.target = target;
+        }
+
+        @Override
+        public void load(ResourceManager resourceManager) {
+        }
+
+        @Override
+        public int getId() {
+            return target.getColorTextureId();
+        }
+
+        @Override
+        public void releaseId() {
+            // The texture belongs to the render target
+        }
+    }
+}
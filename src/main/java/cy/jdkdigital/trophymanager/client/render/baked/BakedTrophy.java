@@ -0,0 +1,105 @@
+package cy.jdkdigital.trophymanager.client.render.baked;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.BufferBuilder;
+import com.mojang.blaze3d.vertex.ByteBufferBuilder;
+import com.mojang.blaze3d.vertex.MeshData;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ShaderInstance;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Trophy geometry recorded once into GPU vertex buffers, one per render type, and drawn again with only the block
+ * transform applied by {@link BakedTrophyBatch}. Light and overlay are part of the recorded vertices. Must only be used
+ * on the render thread.
+ */
+public class BakedTrophy implements AutoCloseable
+{
+    private final List<Layer> layers;
+
+    private BakedTrophy(List<Layer> layers) {
+        this.layers = layers;
+    }
+
+    /**
+     * Records everything the renderer draws into the buffer source it is given
+     */
+    public static BakedTrophy record(Consumer<MultiBufferSource> renderer) {
+        Map<RenderType, BufferBuilder> builders = new LinkedHashMap<>();
+        List<ByteBufferBuilder> memory = new ArrayList<>();
+        List<Layer> layers = new ArrayList<>();
+        try {
+            renderer.accept(renderType -> builders.computeIfAbsent(renderType, type -> {
+                ByteBufferBuilder byteBuffer = new ByteBufferBuilder(type.bufferSize());
+                memory.add(byteBuffer);
+                return new BufferBuilder(byteBuffer, type.mode(), type.format());
+            }));
+
+            for (Map.Entry<RenderType, BufferBuilder> entry : builders.entrySet()) {
+                MeshData mesh = entry.getValue().build();
+                if (mesh != null) {
+                    VertexBuffer vertexBuffer = new VertexBuffer(VertexBuffer.Usage.STATIC);
+                    layers.add(new Layer(entry.getKey(), vertexBuffer));
+                    vertexBuffer.bind();
+                    vertexBuffer.upload(mesh);
+                }
+            }
+            VertexBuffer.unbind();
+            return new BakedTrophy(layers);
+        } catch (RuntimeException e) {
+            layers.forEach(layer -> layer.vertexBuffer().close());
+            throw e;
+        } finally {
+            memory.forEach(ByteBufferBuilder::close);
+        }
+    }
+
+    public List<RenderType> getRenderTypes() {
+        return layers.stream().map(Layer::renderType).toList();
+    }
+
+    /**
+     * Draws the recorded geometry for a render type once per model view matrix. The render state for the type must
+     * already be set up, the shader is applied once and only the model view matrix is uploaded between draws.
+     */
+    public void drawInstances(RenderType renderType, ShaderInstance shader, List<Matrix4f> modelViews) {
+        for (Layer layer : layers) {
+            if (layer.renderType() != renderType || modelViews.isEmpty()) {
+                continue;
+            }
+            VertexBuffer vertexBuffer = layer.vertexBuffer();
+            vertexBuffer.bind();
+            if (shader.MODEL_VIEW_MATRIX == null) {
+                for (Matrix4f modelView : modelViews) {
+                    vertexBuffer.drawWithShader(modelView, RenderSystem.getProjectionMatrix(), shader);
+                }
+                continue;
+            }
+            shader.setDefaultUniforms(renderType.mode(), modelViews.get(0), RenderSystem.getProjectionMatrix(), Minecraft.getInstance().getWindow());
+            shader.apply();
+            for (Matrix4f modelView : modelViews) {
+                shader.MODEL_VIEW_MATRIX.set(modelView);
+                shader.MODEL_VIEW_MATRIX.upload();
+                vertexBuffer.draw();
+            }
+            shader.clear();
+        }
+    }
+
+    @Override
+    public void close() {
+        layers.forEach(layer -> layer.vertexBuffer().close());
+        layers.clear();
+    }
+
+    private record Layer(RenderType renderType, VertexBuffer vertexBuffer) {}
+}
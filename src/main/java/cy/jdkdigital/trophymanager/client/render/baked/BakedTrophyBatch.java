@@ -0,0 +1,68 @@
+package cy.jdkdigital.trophymanager.client.render.baked;
+
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexBuffer;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.ShaderInstance;
+import org.joml.Matrix4f;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Collects baked trophies while block entities render and draws them together afterwards. Trophies sharing a baked
+ * entry are drawn back to back, so each render type is set up once and each buffer bound once per frame no matter how
+ * many copies of a trophy are placed. Render thread only.
+ */
+public class BakedTrophyBatch
+{
+    public static final BakedTrophyBatch INSTANCE = new BakedTrophyBatch();
+
+    private final Map<BakedTrophy, List<Matrix4f>> instances = new LinkedHashMap<>();
+
+    public void add(BakedTrophy bakedTrophy, PoseStack poseStack) {
+        Matrix4f modelView = new Matrix4f(RenderSystem.getModelViewMatrix()).mul(poseStack.last().pose());
+        instances.computeIfAbsent(bakedTrophy, baked -> new ArrayList<>()).add(modelView);
+    }
+
+    public int size() {
+        return instances.size();
+    }
+
+    public void flush() {
+        if (instances.isEmpty()) {
+            return;
+        }
+
+        Map<RenderType, List<BakedTrophy>> byRenderType = new LinkedHashMap<>();
+        for (BakedTrophy bakedTrophy : instances.keySet()) {
+            for (RenderType renderType : bakedTrophy.getRenderTypes()) {
+                byRenderType.computeIfAbsent(renderType, type -> new ArrayList<>()).add(bakedTrophy);
+            }
+        }
+
+        for (Map.Entry<RenderType, List<BakedTrophy>> entry : byRenderType.entrySet()) {
+            RenderType renderType = entry.getKey();
+            renderType.setupRenderState();
+            ShaderInstance shader = RenderSystem.getShader();
+            if (shader != null) {
+                for (BakedTrophy bakedTrophy : entry.getValue()) {
+                    bakedTrophy.drawInstances(renderType, shader, instances.get(bakedTrophy));
+                }
+            }
+            renderType.clearRenderState();
+        }
+        VertexBuffer.unbind();
+        instances.clear();
+    }
+
+    /**
+     * Drops anything queued without being drawn, baked trophies must not be kept past the frame they were queued in
+     */
+    public void clear() {
+        instances.clear();
+    }
+}
@@ -0,0 +1,72 @@
+package cy.jdkdigital.trophymanager.client.render.baked;
+
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityKey;
+import net.minecraft.client.renderer.MultiBufferSource;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Baked trophies shared by all trophies that look the same. Anything that changes the recorded vertices is part of the
+ * key, so changing a trophy's data, scale, rotation or light bakes a new entry and the old one ages out.
+ * Render thread only.
+ */
+public class BakedTrophyCache
+{
+    public static final BakedTrophyCache INSTANCE = new BakedTrophyCache();
+
+    // Evicted entries may still be queued for drawing this frame, their buffers are closed after the batch is drawn
+    private final List<BakedTrophy> evicted = new ArrayList<>();
+
+    private final Map<Key, BakedTrophy> baked = new LinkedHashMap<>(16, 0.75F, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, BakedTrophy> eldest) {
+            if (size() > TrophyManagerConfig.CLIENT.maxBakedTrophies.get()) {
+                evicted.add(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
+    @Nullable
+    public BakedTrophy get(Key key) {
+        return baked.get(key);
+    }
+
+    public BakedTrophy getOrBake(Key key, Consumer<MultiBufferSource> renderer) {
+        BakedTrophy bakedTrophy = baked.get(key);
+        if (bakedTrophy == null) {
+            bakedTrophy = BakedTrophy.record(renderer);
+            baked.put(key, bakedTrophy);
+        }
+        return bakedTrophy;
+    }
+
+    public int size() {
+        return baked.size();
+    }
+
+    public void closeEvicted() {
+        if (!evicted.isEmpty()) {
+            evicted.forEach(BakedTrophy::close);
+            evicted.clear();
+        }
+    }
+
+    public void clear() {
+        closeEvicted();
+        if (!baked.isEmpty()) {
+            baked.values().forEach(BakedTrophy::close);
+            baked.clear();
+        }
+    }
+
+    public record Key(TrophyEntityKey entity, float angle, float rotX, float scale, double offsetY, int light) {}
+}
@@ -3,7 +3,15 @@ package cy.jdkdigital.trophymanager.client.render.block;
 import com.mojang.blaze3d.vertex.PoseStack;
 import com.mojang.math.Axis;
 import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.client.debug.TrophyRenderStats;
+import cy.jdkdigital.trophymanager.client.render.TrophyFramePlan;
+import cy.jdkdigital.trophymanager.client.render.baked.BakedTrophy;
+import cy.jdkdigital.trophymanager.client.render.baked.BakedTrophyBatch;
+import cy.jdkdigital.trophymanager.client.render.baked.BakedTrophyCache;
+import cy.jdkdigital.trophymanager.client.render.entity.TrophyAnimator;
+import cy.jdkdigital.trophymanager.client.render.impostor.TrophyImpostors;
 import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityKey;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.model.PlayerModel;
 import net.minecraft.client.model.geom.ModelLayers;
@@ -12,19 +20,24 @@ import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.blockentity.BlockEntityRenderer;
 import net.minecraft.client.renderer.blockentity.BlockEntityRendererProvider;
 import net.minecraft.client.renderer.entity.EntityRenderDispatcher;
-import net.minecraft.core.Direction;
 import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.ItemDisplayContext;
-import net.minecraft.world.level.block.Block;
-import net.minecraft.world.level.block.Blocks;
-import net.minecraft.world.level.block.HorizontalDirectionalBlock;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.phys.AABB;
+import org.joml.Quaternionf;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 
 public class TrophyBlockEntityRenderer implements BlockEntityRenderer<TrophyBlockEntity>
 {
+    private static final EquipmentSlot[] EQUIPMENT_SLOTS = EquipmentSlot.values();
+    // Equipment taken off for a single draw by slot ordinal, render thread only
+    private static final ItemStack[] takenOffEquipment = new ItemStack[EQUIPMENT_SLOTS.length];
+
     private PlayerInfo playerInfo;
     PlayerModel<Player> playerModelRegular;
     PlayerModel<Player> playerModelSlim;
@@ -36,116 +49,168 @@ public class TrophyBlockEntityRenderer implements BlockEntityRenderer<TrophyBloc
 
     @Override
     public void render(@Nonnull TrophyBlockEntity trophyTileEntity, float v, @Nonnull PoseStack poseStack, @Nonnull MultiBufferSource buffer, int combinedLightIn, int combinedOverlayIn) {
-        if (trophyTileEntity.trophyType != null && Minecraft.getInstance().level != null) {
-            trophyTileEntity.setLevel(Minecraft.getInstance().level);
+        long start = TrophyRenderStats.isEnabled() ? System.nanoTime() : 0;
+
+        TrophyRenderState state = TrophyRenderState.get(trophyTileEntity);
+        TrophyFramePlan.Entry plan = trophyTileEntity.isPlaced() ? TrophyFramePlan.INSTANCE.get(trophyTileEntity.getBlockPos()) : null;
+        if (plan != null && plan.isCulled()) {
+            return;
+        }
+        if (trophyTileEntity.getLevel() != null) {
             if (trophyTileEntity.isOnHead) {
                 poseStack.translate(0,0.4f, 0);
             }
-            if (trophyTileEntity.trophyType.equals("item") && trophyTileEntity.item != null) {
-                renderItem(trophyTileEntity, poseStack, buffer, combinedLightIn, combinedOverlayIn);
-            } else if (trophyTileEntity.trophyType.equals("entity")) {
+            if (state.type() == TrophyRenderState.Type.ITEM && !state.isItemMeshed()) {
+                renderItem(trophyTileEntity, state, poseStack, buffer, combinedLightIn, combinedOverlayIn);
+            } else if (state.type() == TrophyRenderState.Type.ENTITY) {
                 Entity entity = trophyTileEntity.getCachedEntity();
                 if (entity != null) {
-                    renderEntity(trophyTileEntity, poseStack, buffer, combinedLightIn);
+                    renderEntity(trophyTileEntity, state, plan, entity, poseStack, buffer, combinedLightIn);
                 }
             }
         }
 
-        renderBase(trophyTileEntity, poseStack, buffer, combinedLightIn, combinedOverlayIn);
-    }
+        if (state.baseState() != null) {
+            Minecraft.getInstance().getBlockRenderer().renderSingleBlock(state.baseState(), poseStack, buffer, combinedLightIn, combinedOverlayIn);
+        }
 
-    private void renderBase(TrophyBlockEntity trophyTileEntity, PoseStack poseStack, @Nonnull MultiBufferSource buffer, int combinedLightIn, int combinedOverlayIn) {
-        Block baseBlock = trophyTileEntity.isOnHead ? Blocks.AIR : trophyTileEntity.getBaseBlock();
-        if (baseBlock != null) {
-            Minecraft.getInstance().getBlockRenderer().renderSingleBlock(baseBlock.defaultBlockState(), poseStack, buffer, combinedLightIn, combinedOverlayIn);
+        if (start != 0) {
+            TrophyRenderStats.record(trophyTileEntity, System.nanoTime() - start);
         }
     }
 
-    private void renderItem(TrophyBlockEntity trophyBlockEntity, PoseStack poseStack, @Nonnull MultiBufferSource buffer, int combinedLightIn, int combinedOverlayIn) {
-        double tick = 0;
-        if (TrophyManagerConfig.GENERAL.rotateItemTrophies.get()) {
-            tick = System.currentTimeMillis() / 800.0D;
-        } else {
-            if (trophyBlockEntity.getLevel() != null) {
-                Direction facing = trophyBlockEntity.getBlockState().getValue(HorizontalDirectionalBlock.FACING);
-                if (facing == Direction.NORTH) {
-                    tick = 6D;
-                } else if (facing == Direction.SOUTH) {
-                    tick = 0D;
-                } else if (facing == Direction.EAST) {
-                    tick = 3D;
-                } else if (facing == Direction.WEST) {
-                    tick = 9D;
-                }
-            }
-        }
+    private void renderItem(TrophyBlockEntity trophyBlockEntity, TrophyRenderState state, PoseStack poseStack, @Nonnull MultiBufferSource buffer, int combinedLightIn, int combinedOverlayIn) {
+        double tick = state.isItemRotating() ? System.currentTimeMillis() / 800.0D : state.itemTick();
 
         poseStack.pushPose();
-        poseStack.translate(0.5f, trophyBlockEntity.offsetY + 0.5D + Math.sin(tick / 25f) / 15f, 0.5f);
-        poseStack.mulPose(Axis.YP.rotationDegrees((float) ((tick * 30.0D) % 360)));
-        poseStack.scale(trophyBlockEntity.scale, trophyBlockEntity.scale, trophyBlockEntity.scale);
-        Minecraft.getInstance().getItemRenderer().renderStatic(trophyBlockEntity.item, ItemDisplayContext.FIXED, combinedLightIn, combinedOverlayIn, poseStack, buffer, trophyBlockEntity.getLevel(), 0);
+        transformItem(poseStack, tick, state.offsetY(), state.scale());
+        Minecraft.getInstance().getItemRenderer().renderStatic(state.item(), ItemDisplayContext.FIXED, combinedLightIn, combinedOverlayIn, poseStack, buffer, trophyBlockEntity.getLevel(), 0);
         poseStack.popPose();
     }
 
-    private void renderEntity(TrophyBlockEntity trophyTileEntity, PoseStack matrixStack, @Nonnull MultiBufferSource buffer, int combinedLightIn) {
-        float angle = 0;
-        if (trophyTileEntity.getLevel() != null) {
-            Direction facing = trophyTileEntity.getBlockState().getValue(HorizontalDirectionalBlock.FACING);
-            if (facing == Direction.NORTH) {
-                angle = 180f;
-            } else if (facing == Direction.SOUTH) {
-                angle = 0f;
-            } else if (facing == Direction.EAST) {
-                angle = 90f;
-            } else if (facing == Direction.WEST) {
-                angle = 270f;
+    public static void transformItem(PoseStack poseStack, double tick, double offsetY, float scale) {
+        poseStack.translate(0.5f, offsetY + 0.5D + Math.sin(tick / 25f) / 15f, 0.5f);
+        poseStack.mulPose(Axis.YP.rotationDegrees((float) ((tick * 30.0D) % 360)));
+        poseStack.scale(scale, scale, scale);
+    }
+
+    private void renderEntity(TrophyBlockEntity trophyTileEntity, TrophyRenderState state, @Nullable TrophyFramePlan.Entry plan, Entity cachedEntity, PoseStack matrixStack, @Nonnull MultiBufferSource buffer, int combinedLightIn) {
+        TrophyEntityKey entityKey = trophyTileEntity.getEntityKey();
+
+        // Far away trophies are drawn as sprites, fading in over the model
+        float impostorFade = plan != null && entityKey != null ? plan.impostorFade() : 0;
+        if (impostorFade > 0) {
+            boolean isDrawn = TrophyImpostors.INSTANCE.render(cachedEntity, entityKey, state, trophyTileEntity.getBlockPos(), matrixStack, buffer, combinedLightIn, impostorFade);
+            if (isDrawn && impostorFade >= 1) {
+                return;
             }
         }
 
-        matrixStack.pushPose();
-        matrixStack.translate(0.5f, trophyTileEntity.offsetY, 0.5f);
-        matrixStack.mulPose(Axis.YP.rotationDegrees(angle));
-        matrixStack.mulPose(Axis.XP.rotationDegrees(trophyTileEntity.rotX));
-        matrixStack.scale(trophyTileEntity.scale, trophyTileEntity.scale, trophyTileEntity.scale);
+        // Placed trophies never move, record them once and draw the recorded geometry together with identical trophies
+        if (TrophyManagerConfig.CLIENT.bakeEntityTrophies.get() && trophyTileEntity.isPlaced() && entityKey != null) {
+            BakedTrophyCache.Key key = state.getBakedKey(entityKey, combinedLightIn);
+            BakedTrophy bakedTrophy = BakedTrophyCache.INSTANCE.get(key);
+            if (bakedTrophy == null) {
+                bakedTrophy = BakedTrophyCache.INSTANCE.getOrBake(key, bakeBuffer -> renderEntityModel(cachedEntity, state.entityRotation(), state.scale(), state.offsetY(), new PoseStack(), bakeBuffer, combinedLightIn));
+            }
+            BakedTrophyBatch.INSTANCE.add(bakedTrophy, matrixStack);
+            return;
+        }
 
-        if (trophyTileEntity.entity.getString("entityType").equals("minecraft:ender_dragon")) {
-            matrixStack.mulPose(Axis.YP.rotationDegrees(180f));
+        // The animated pose is only for this draw, item renders and captures share the entity at rest
+        float partialTick = plan != null ? TrophyAnimator.INSTANCE.request(cachedEntity, plan.distanceSqr()) : 1F;
+        boolean isPosed = plan != null && TrophyAnimator.INSTANCE.pose(cachedEntity);
+        renderEntityModel(cachedEntity, state.entityRotation(), state.scale(), state.offsetY(), partialTick, plan == null || plan.isDetailed(), matrixStack, buffer, combinedLightIn);
+        if (isPosed) {
+            TrophyAnimator.INSTANCE.restore(cachedEntity);
         }
+    }
+
+    /**
+     * Renders a trophy entity and its passengers standing on the trophy with the given rotation, see
+     * {@link TrophyRenderState#getEntityRotation}
+     */
+    public static void renderEntityModel(Entity cachedEntity, Quaternionf rotation, float scale, double offsetY, PoseStack matrixStack, MultiBufferSource buffer, int combinedLightIn) {
+        renderEntityModel(cachedEntity, rotation, scale, offsetY, 1F, true, matrixStack, buffer, combinedLightIn);
+    }
+
+    /**
+     * Renders a trophy entity at the given partial tick, see {@link TrophyAnimator}. Passengers and equipment are
+     * left out when not detailed, see {@link TrophyFramePlan}.
+     */
+    public static void renderEntityModel(Entity cachedEntity, Quaternionf rotation, float scale, double offsetY, float partialTick, boolean isDetailed, PoseStack matrixStack, MultiBufferSource buffer, int combinedLightIn) {
+        matrixStack.pushPose();
+        matrixStack.translate(0.5f, offsetY, 0.5f);
+        matrixStack.mulPose(rotation);
+        matrixStack.scale(scale, scale, scale);
 
+        // Shadows are sampled from the blocks of the client level at the entity position, which is not where the
+        // trophy is. This is also the path baked trophies, sprites and icons are recorded through.
         EntityRenderDispatcher entityRendererManager = Minecraft.getInstance().getEntityRenderDispatcher();
+        boolean shouldRenderShadow = entityRendererManager.shouldRenderShadow;
         entityRendererManager.setRenderShadow(false);
-        Entity cachedEntity = trophyTileEntity.getCachedEntity();
-        if (cachedEntity != null) {
-            entityRendererManager.render(cachedEntity, 0, 0, 0., Minecraft.getInstance().getFrameTimeNs(), 1, matrixStack, buffer, combinedLightIn);
-            renderPassengers(cachedEntity, entityRendererManager, matrixStack, buffer, combinedLightIn);
+        boolean isUndressed = !isDetailed && cachedEntity instanceof LivingEntity livingEntity && takeOffEquipment(livingEntity);
+        entityRendererManager.render(cachedEntity, 0, 0, 0., Minecraft.getInstance().getFrameTimeNs(), partialTick, matrixStack, buffer, combinedLightIn);
+        if (isDetailed) {
+            renderPassengers(cachedEntity, entityRendererManager, partialTick, matrixStack, buffer, combinedLightIn);
+        }
+        if (isUndressed) {
+            putOnEquipment((LivingEntity) cachedEntity);
         }
+        entityRendererManager.setRenderShadow(shouldRenderShadow);
 
         matrixStack.popPose();
     }
 
-    private static void renderPassengers(Entity entity, EntityRenderDispatcher entityRendererManager, PoseStack matrixStack, MultiBufferSource buffer, int combinedLightIn) {
+    /**
+     * Takes the equipment off for a single draw, returns whether there was any. Trophy entities are never ticked, so
+     * nothing else sees the change.
+     */
+    private static boolean takeOffEquipment(LivingEntity entity) {
+        boolean isTakenOff = false;
+        for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+            ItemStack stack = entity.getItemBySlot(slot);
+            if (!stack.isEmpty()) {
+                takenOffEquipment[slot.ordinal()] = stack;
+                entity.setItemSlot(slot, ItemStack.EMPTY);
+                isTakenOff = true;
+            }
+        }
+        return isTakenOff;
+    }
+
+    private static void putOnEquipment(LivingEntity entity) {
+        for (EquipmentSlot slot : EQUIPMENT_SLOTS) {
+            ItemStack stack = takenOffEquipment[slot.ordinal()];
+            if (stack != null) {
+                entity.setItemSlot(slot, stack);
+                takenOffEquipment[slot.ordinal()] = null;
+            }
+        }
+    }
+
+    private static void renderPassengers(Entity entity, EntityRenderDispatcher entityRendererManager, float partialTick, PoseStack matrixStack, MultiBufferSource buffer, int combinedLightIn) {
         if (entity.isVehicle()) {
             for(Entity rider : entity.getPassengers()) {
                 entity.positionRider(rider);
-                entityRendererManager.render(rider, rider.getX(), rider.getY(), rider.getZ(), Minecraft.getInstance().getFrameTimeNs(), 1, matrixStack, buffer, combinedLightIn);
-                renderPassengers(rider, entityRendererManager, matrixStack, buffer, combinedLightIn);
+                entityRendererManager.render(rider, rider.getX(), rider.getY(), rider.getZ(), Minecraft.getInstance().getFrameTimeNs(), partialTick, matrixStack, buffer, combinedLightIn);
+                renderPassengers(rider, entityRendererManager, partialTick, matrixStack, buffer, combinedLightIn);
             }
         }
     }
 
     @Override
     public boolean shouldRenderOffScreen(TrophyBlockEntity pBlockEntity) {
-        return true;
+        return false;
     }
 
     @Override
     public int getViewDistance() {
-        return 256;
+        return TrophyManagerConfig.CLIENT.viewDistance.get();
     }
 
     @Override
     public AABB getRenderBoundingBox(TrophyBlockEntity blockEntity) {
-        return AABB.INFINITE;
+        return blockEntity.getRenderBounds();
     }
 }
@@ -0,0 +1,127 @@
+package cy.jdkdigital.trophymanager.client.render.block;
+
+import com.mojang.math.Axis;
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.client.render.baked.BakedTrophyCache;
+import cy.jdkdigital.trophymanager.client.render.model.TrophyBakedModel;
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityKey;
+import net.minecraft.core.Direction;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.Items;
+import net.minecraft.world.level.block.Blocks;
+import net.minecraft.world.level.block.HorizontalDirectionalBlock;
+import net.minecraft.world.level.block.state.BlockState;
+import org.joml.Quaternionf;
+
+import javax.annotation.Nullable;
+
+/**
+ * Everything needed to draw a trophy, resolved once from its data. Trophies drop their state when their data, block
+ * state or placement changes, so rendering only applies the cached transform and draws. The state is kept on the
+ * trophy but only ever created here on the client. The rotation must not be modified.
+ */
+public record TrophyRenderState(Type type, ItemStack item, boolean isItemMeshed, boolean isItemRotating, double itemTick, @Nullable BlockState baseState, float angle, float rotX, float scale, double offsetY, Quaternionf entityRotation, boolean isDragon, BakedKeySlot bakedKey)
+{
+    // Shown instead of entities with data over the configured limits
+    private static final ItemStack PLACEHOLDER = new ItemStack(Items.BARRIER);
+
+    /**
+     * Returns the render state of the trophy, resolving it when the trophy is first drawn after its data changed
+     */
+    public static TrophyRenderState get(TrophyBlockEntity trophy) {
+        if (trophy.getClientRenderState() instanceof TrophyRenderState state) {
+            return state;
+        }
+        TrophyRenderState state = of(trophy);
+        trophy.setClientRenderState(state);
+        return state;
+    }
+
+    private static TrophyRenderState of(TrophyBlockEntity trophy) {
+        Direction facing = trophy.getLevel() != null ? trophy.getBlockState().getValue(HorizontalDirectionalBlock.FACING) : Direction.SOUTH;
+
+        Type type = Type.NONE;
+        ItemStack item = ItemStack.EMPTY;
+        if (trophy.trophyType != null) {
+            if (trophy.trophyType.equals("item") && trophy.item != null) {
+                type = Type.ITEM;
+                item = trophy.item;
+            } else if (trophy.trophyType.equals("entity") && trophy.isEntityOverLimit()) {
+                type = Type.ITEM;
+                item = PLACEHOLDER;
+            } else if (trophy.trophyType.equals("entity")) {
+                type = Type.ENTITY;
+            }
+        }
+        // Static items on placed trophies are part of the chunk mesh
+        boolean isItemMeshed = item == trophy.item && trophy.isPlaced() && trophy.getStaticItem() != null && TrophyBakedModel.canBakeItem(item);
+
+        // Placed trophies have their base meshed with the chunk
+        BlockState baseState = (trophy.isOnHead ? Blocks.AIR : trophy.getBaseBlock()).defaultBlockState();
+        if (baseState.isAir() || (trophy.isPlaced() && TrophyBakedModel.isBaked(baseState))) {
+            baseState = null;
+        }
+
+        boolean isDragon = trophy.entity != null && trophy.entity.getString("entityType").equals("minecraft:ender_dragon");
+        float angle = getEntityAngle(facing);
+
+        return new TrophyRenderState(type, item, isItemMeshed, TrophyManagerConfig.GENERAL.rotateItemTrophies.get(), getStaticItemTick(facing), baseState, angle, trophy.rotX, trophy.scale, trophy.offsetY, getEntityRotation(angle, trophy.rotX, isDragon), isDragon, new BakedKeySlot());
+    }
+
+    /**
+     * Key of the trophy in the baked trophy cache, resolved again only when the light at the trophy changes
+     */
+    public BakedTrophyCache.Key getBakedKey(TrophyEntityKey entityKey, int light) {
+        BakedTrophyCache.Key key = bakedKey.key;
+        if (key == null || key.light() != light || key.entity() != entityKey) {
+            key = new BakedTrophyCache.Key(entityKey, angle, rotX, scale, offsetY, light);
+            bakedKey.key = key;
+        }
+        return key;
+    }
+
+    public static float getEntityAngle(Direction facing) {
+        if (facing == Direction.NORTH) {
+            return 180f;
+        } else if (facing == Direction.EAST) {
+            return 90f;
+        } else if (facing == Direction.WEST) {
+            return 270f;
+        }
+        return 0f;
+    }
+
+    /**
+     * Animation tick that turns a non rotating item to face the same way as the trophy
+     */
+    public static double getStaticItemTick(Direction facing) {
+        if (facing == Direction.NORTH) {
+            return 6D;
+        } else if (facing == Direction.EAST) {
+            return 3D;
+        } else if (facing == Direction.WEST) {
+            return 9D;
+        }
+        return 0D;
+    }
+
+    public static Quaternionf getEntityRotation(float angle, float rotX, boolean isDragon) {
+        Quaternionf rotation = Axis.YP.rotationDegrees(angle).mul(Axis.XP.rotationDegrees(rotX));
+        if (isDragon) {
+            rotation.mul(Axis.YP.rotationDegrees(180f));
+        }
+        return rotation;
+    }
+
+    public enum Type
+    {
+        NONE, ITEM, ENTITY
+    }
+
+    static final class BakedKeySlot
+    {
+        @Nullable
+        private BakedTrophyCache.Key key = null;
+    }
+}
@@ -0,0 +1,169 @@
+package cy.jdkdigital.trophymanager.client.render.entity;
+
+import com.google.common.hash.Hashing;
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.minecraft.MinecraftProfileTexture;
+import com.mojang.authlib.minecraft.MinecraftProfileTextures;
+import com.mojang.authlib.minecraft.MinecraftSessionService;
+import com.mojang.authlib.properties.Property;
+import cy.jdkdigital.trophymanager.TrophyManager;
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import net.minecraft.Util;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.texture.HttpTexture;
+import net.minecraft.client.resources.DefaultPlayerSkin;
+import net.minecraft.client.resources.PlayerSkin;
+import net.minecraft.resources.ResourceLocation;
+
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Skins of player trophies. Profiles are looked up in the background, trophies show the default skin for their uuid
+ * until the skin is loaded. Profiles from the session server are kept on disk so skins show without a lookup after a
+ * restart. Skin textures are registered by this cache, separate from the ones the
+ * {@link net.minecraft.client.resources.SkinManager} keeps for players, and downloaded to disk once. Textures of evicted
+ * players are released unless another cached player shares them. Failed lookups are retried after a while. Render
+ * thread only.
+ */
+public class PlayerSkinCache
+{
+    public static final PlayerSkinCache INSTANCE = new PlayerSkinCache();
+
+    // Cached profiles older than this are looked up again, but still used when the lookup fails
+    private static final long PROFILE_MAX_AGE = TimeUnit.DAYS.toMillis(1);
+    // Players whose skin failed to load are looked up again after this long
+    private static final long FAILURE_RETRY_DELAY = TimeUnit.MINUTES.toMillis(1);
+
+    private final Map<UUID, Skin> skins = new LinkedHashMap<>(16, 0.75F, true)
+    {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<UUID, Skin> eldest) {
+            if (size() > TrophyManagerConfig.CLIENT.maxPlayerSkins.get()) {
+                release(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+    // Skin textures this cache registered with the texture manager
+    private final Set<ResourceLocation> registeredTextures = new HashSet<>();
+
+    public PlayerSkin get(UUID uuid) {
+        Skin skin = skins.get(uuid);
+        if (skin == null || skin.isFailed() && System.currentTimeMillis() - skin.failedAt > FAILURE_RETRY_DELAY) {
+            skin = new Skin(load(uuid));
+            skins.put(uuid, skin);
+        }
+        return skin.future().getNow(Optional.empty()).orElseGet(() -> DefaultPlayerSkin.get(uuid));
+    }
+
+    public int size() {
+        return skins.size();
+    }
+
+    /**
+     * Forgets all skins and releases their textures, failed lookups are retried the next time the skin is needed
+     */
+    public void clear() {
+        registeredTextures.forEach(Minecraft.getInstance().getTextureManager()::release);
+        registeredTextures.clear();
+        skins.clear();
+    }
+
+    private CompletableFuture<Optional<PlayerSkin>> load(UUID uuid) {
+        ProfileSource source = getProfileSource();
+        Minecraft minecraft = Minecraft.getInstance();
+        MinecraftSessionService sessionService = minecraft.getMinecraftSessionService();
+        return CompletableFuture.supplyAsync(() -> source.fetch(uuid).map(profile -> getTextures(sessionService, profile)), Util.backgroundExecutor())
+                .thenApplyAsync(textures -> textures.map(profileTextures -> createSkin(uuid, profileTextures)), minecraft)
+                .exceptionally(e -> {
+                    TrophyManager.LOGGER.warn("Failed to load skin for player trophy {}", uuid, e);
+                    return Optional.empty();
+                });
+    }
+
+    /**
+     * Registers the skin texture of a profile unless it already is, the texture is read from disk if it was
+     * downloaded before. Profiles without a skin get the default skin for their uuid.
+     */
+    private PlayerSkin createSkin(UUID uuid, MinecraftProfileTextures textures) {
+        MinecraftProfileTexture skin = textures.skin();
+        if (skin == null) {
+            return DefaultPlayerSkin.get(uuid);
+        }
+        String hash = Hashing.sha1().hashUnencodedChars(skin.getHash()).toString();
+        ResourceLocation texture = ResourceLocation.fromNamespaceAndPath(TrophyManager.MODID, "skins/" + hash);
+        if (registeredTextures.add(texture)) {
+            Path file = getCacheDirectory().resolve("skins").resolve(hash + ".png");
+            Minecraft.getInstance().getTextureManager().register(texture, new HttpTexture(file.toFile(), skin.getUrl(), DefaultPlayerSkin.getDefaultTexture(), true, null));
+        }
+        return new PlayerSkin(texture, skin.getUrl(), null, null, PlayerSkin.Model.byName(skin.getMetadata("model")), false);
+    }
+
+    /**
+     * Releases the skin texture of an evicted player, unless another cached player has the same skin
+     */
+    private void release(Skin evicted) {
+        evicted.future().getNow(Optional.empty()).map(PlayerSkin::texture).filter(registeredTextures::contains).ifPresent(texture -> {
+            for (Skin skin : skins.values()) {
+                if (skin != evicted && skin.future().getNow(Optional.empty()).filter(other -> other.texture().equals(texture)).isPresent()) {
+                    return;
+                }
+            }
+            Minecraft.getInstance().getTextureManager().release(texture);
+            registeredTextures.remove(texture);
+        });
+    }
+
+    private static MinecraftProfileTextures getTextures(MinecraftSessionService sessionService, GameProfile profile) {
+        Property packedTextures = sessionService.getPackedTextures(profile);
+        return packedTextures != null ? sessionService.unpackTextures(packedTextures) : MinecraftProfileTextures.EMPTY;
+    }
+
+    /**
+     * Only profiles from the session server are written to the profile cache, local sources are read as they are
+     */
+    private static ProfileSource getProfileSource() {
+        String source = TrophyManagerConfig.CLIENT.skinProfileSource.get();
+        if (source.isBlank()) {
+            return ProfileSource.cached(ProfileSource.session(), getCacheDirectory().resolve("profiles"), PROFILE_MAX_AGE);
+        }
+        return source.equals("offline") ? ProfileSource.offline() : ProfileSource.directory(Path.of(source));
+    }
+
+    private static Path getCacheDirectory() {
+        return Minecraft.getInstance().gameDirectory.toPath().resolve(TrophyManager.MODID);
+    }
+
+    private static class Skin
+    {
+        private final CompletableFuture<Optional<PlayerSkin>> future;
+        // When the skin failed to load, 0 while loading or loaded
+        private volatile long failedAt = 0;
+
+        private Skin(CompletableFuture<Optional<PlayerSkin>> future) {
+            this.future = future;
+            future.thenAccept(skin -> {
+                if (skin.isEmpty()) {
+                    failedAt = System.currentTimeMillis();
+                }
+            });
+        }
+
+        private CompletableFuture<Optional<PlayerSkin>> future() {
+            return future;
+        }
+
+        private boolean isFailed() {
+            return failedAt != 0;
+        }
+    }
+}
@@ -1,65 +1,53 @@
 package cy.jdkdigital.trophymanager.client.render.entity;
 
-import cy.jdkdigital.trophymanager.TrophyManager;
+import com.mojang.blaze3d.vertex.PoseStack;
 import cy.jdkdigital.trophymanager.common.entity.RenderPlayer;
-import net.minecraft.client.Minecraft;
-import net.minecraft.client.model.ZombieModel;
-import net.minecraft.client.model.geom.ModelLayerLocation;
+import net.minecraft.client.model.HumanoidArmorModel;
+import net.minecraft.client.model.PlayerModel;
 import net.minecraft.client.model.geom.ModelLayers;
-import net.minecraft.client.multiplayer.PlayerInfo;
-import net.minecraft.client.renderer.entity.AbstractZombieRenderer;
+import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.entity.EntityRendererProvider;
+import net.minecraft.client.renderer.entity.LivingEntityRenderer;
+import net.minecraft.client.renderer.entity.layers.HumanoidArmorLayer;
+import net.minecraft.client.renderer.entity.layers.ItemInHandLayer;
 import net.minecraft.client.resources.DefaultPlayerSkin;
 import net.minecraft.client.resources.PlayerSkin;
-import net.minecraft.client.resources.SkinManager;
 import net.minecraft.resources.ResourceLocation;
-import net.minecraft.world.item.component.ResolvableProfile;
 import org.jetbrains.annotations.NotNull;
 
-import javax.annotation.Nullable;
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
-
-public class PlayerTrophyRenderer extends AbstractZombieRenderer<RenderPlayer, ZombieModel<RenderPlayer>>
+public class PlayerTrophyRenderer extends LivingEntityRenderer<RenderPlayer, PlayerModel<RenderPlayer>>
 {
-    static Map<UUID, PlayerSkin> playerInfoCache = new HashMap<>();
+    private final PlayerModel<RenderPlayer> regularModel;
+    private final PlayerModel<RenderPlayer> slimModel;
 
     public PlayerTrophyRenderer(EntityRendererProvider.Context context) {
-        this(context, ModelLayers.ZOMBIE, ModelLayers.ZOMBIE_INNER_ARMOR, ModelLayers.ZOMBIE_OUTER_ARMOR);
+        super(context, new PlayerModel<>(context.bakeLayer(ModelLayers.PLAYER), false), 0.5F);
+        this.regularModel = this.model;
+        this.slimModel = new PlayerModel<>(context.bakeLayer(ModelLayers.PLAYER_SLIM), true);
+        this.addLayer(new HumanoidArmorLayer<>(this, new HumanoidArmorModel<>(context.bakeLayer(ModelLayers.PLAYER_INNER_ARMOR)), new HumanoidArmorModel<>(context.bakeLayer(ModelLayers.PLAYER_OUTER_ARMOR)), context.getModelManager()));
+        this.addLayer(new ItemInHandLayer<>(this, context.getItemInHandRenderer()));
     }
 
-    public PlayerTrophyRenderer(EntityRendererProvider.Context context, ModelLayerLocation p_174459_, ModelLayerLocation p_174460_, ModelLayerLocation p_174461_) {
-        super(context, new ZombieModel<>(context.bakeLayer(p_174459_)), new ZombieModel<>(context.bakeLayer(p_174460_)), new ZombieModel<>(context.bakeLayer(p_174461_)));
+    @Override
+    public void render(RenderPlayer player, float entityYaw, float partialTicks, PoseStack poseStack, MultiBufferSource buffer, int packedLight) {
+        this.model = getSkin(player).model() == PlayerSkin.Model.SLIM ? slimModel : regularModel;
+        super.render(player, entityYaw, partialTicks, poseStack, buffer, packedLight);
     }
 
     @Override
-    public @NotNull ResourceLocation getTextureLocation(RenderPlayer player) {
-        if (!player.getUUIDData().isEmpty()) {
-//            return getSkinTextureLocation(UUID.fromString(player.getUUIDData()));
-        }
-        return DefaultPlayerSkin.getDefaultTexture();
+    protected boolean shouldShowName(RenderPlayer player) {
+        return false;
     }
 
-    @Nullable
-    protected static PlayerSkin getPlayerInfo(ResolvableProfile pProfile) {
-        if (!playerInfoCache.containsKey(pProfile.id().get())) {
-            SkinManager skinmanager = Minecraft.getInstance().getSkinManager();
-            playerInfoCache.put(pProfile.id().get(), skinmanager.getInsecureSkin(pProfile.gameProfile()));
-        }
-        return playerInfoCache.get(pProfile.id().get());
+    @Override
+    public @NotNull ResourceLocation getTextureLocation(RenderPlayer player) {
+        return getSkin(player).texture();
     }
 
-    public static boolean isSkinLoaded(ResolvableProfile pProfile) {
-        PlayerSkin playerinfo = getPlayerInfo(pProfile);
-        return playerinfo != null;
+    /**
+     * Skin of the player, the default skin until it's loaded, see {@link PlayerSkinCache}
+     */
+    private static PlayerSkin getSkin(RenderPlayer player) {
+        return player.getPlayerId().map(PlayerSkinCache.INSTANCE::get).orElseGet(DefaultPlayerSkin::getDefaultSkin);
     }
-
-//    public static ResourceLocation getSkinTextureLocation(ResolvableProfile pProfile) {
-//        PlayerSkin playerinfo = getPlayerInfo(pProfile);
-//        if (playerinfo != null) {
-//            TrophyManager.LOGGER.info("playerInfo " + playerinfo.texture());
-//        }
-//        return playerinfo == null ? DefaultPlayerSkin.getDefaultTexture() : playerinfo.getSkin().texture();
-//    }
 }
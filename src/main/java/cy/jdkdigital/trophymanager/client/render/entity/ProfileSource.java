@@ -0,0 +1,100 @@
+package cy.jdkdigital.trophymanager.client.render.entity;
+
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.yggdrasil.ProfileResult;
+import com.mojang.serialization.JsonOps;
+import cy.jdkdigital.trophymanager.TrophyManager;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.ExtraCodecs;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Looks up the profile, including skin textures, of a player trophy. Called off the render thread and may block.
+ */
+@FunctionalInterface
+public interface ProfileSource
+{
+    Optional<GameProfile> fetch(UUID uuid);
+
+    /**
+     * Profiles from the session server
+     */
+    static ProfileSource session() {
+        return uuid -> Optional.ofNullable(Minecraft.getInstance().getMinecraftSessionService().fetchProfile(uuid, true)).map(ProfileResult::profile);
+    }
+
+    /**
+     * Profiles stored as {@code <uuid>.json} in a folder, in the same format as the profile cache. Stands in for the
+     * session server when playing or testing offline.
+     */
+    static ProfileSource directory(Path directory) {
+        return uuid -> readProfile(directory.resolve(uuid + ".json"));
+    }
+
+    /**
+     * Profiles without skin textures, so every trophy gets the default skin for its uuid without any network access
+     */
+    static ProfileSource offline() {
+        return uuid -> Optional.of(new GameProfile(uuid, ""));
+    }
+
+    /**
+     * Profiles from the source kept as {@code <uuid>.json} in a folder. Cached profiles older than the max age are
+     * fetched again, but still used when that fails.
+     */
+    static ProfileSource cached(ProfileSource source, Path directory, long maxAge) {
+        return uuid -> {
+            Path file = directory.resolve(uuid + ".json");
+            Optional<GameProfile> cached = readProfile(file);
+            if (cached.isPresent() && isFresh(file, maxAge)) {
+                return cached;
+            }
+
+            Optional<GameProfile> fetched = source.fetch(uuid);
+            if (fetched.isPresent()) {
+                writeProfile(file, fetched.get());
+                return fetched;
+            }
+            return cached;
+        };
+    }
+
+    private static boolean isFresh(Path file, long maxAge) {
+        try {
+            return System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis() < maxAge;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static Optional<GameProfile> readProfile(Path file) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try (Reader reader = Files.newBufferedReader(file)) {
+            return ExtraCodecs.GAME_PROFILE.parse(JsonOps.INSTANCE, JsonParser.parseReader(reader)).result();
+        } catch (IOException | JsonParseException e) {
+            TrophyManager.LOGGER.debug("Failed to read player profile {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private static void writeProfile(Path file, GameProfile profile) {
+        ExtraCodecs.GAME_PROFILE.encodeStart(JsonOps.INSTANCE, profile).result().ifPresent(json -> {
+            try {
+                Files.createDirectories(file.getParent());
+                Files.writeString(file, json.toString());
+            } catch (IOException e) {
+                TrophyManager.LOGGER.debug("Failed to write player profile {}", file, e);
+            }
+        });
+    }
+}
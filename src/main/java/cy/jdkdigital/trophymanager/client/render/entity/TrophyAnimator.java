@@ -0,0 +1,150 @@
+package cy.jdkdigital.trophymanager.client.render.entity;
+
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import it.unimi.dsi.fastutil.objects.Object2DoubleMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.Reference2DoubleOpenHashMap;
+import it.unimi.dsi.fastutil.objects.Reference2IntOpenHashMap;
+import net.minecraft.client.Minecraft;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.LivingEntity;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Idle animation of placed entity trophies. Trophy entities are never ticked, instead they are aged so models animated
+ * by age breathe, bob and flap, and their head sways. Trophies drawn last tick are animated nearest first: every tick
+ * within half the animation distance, every few ticks beyond that and not at all when they weren't drawn, are out of
+ * range or over the per tick budget. The cached entity is shared with item renders and sprite and icon captures, so
+ * the animated pose is only applied around the draw of a placed trophy and the entity is left at rest otherwise.
+ * Render thread only.
+ */
+public class TrophyAnimator
+{
+    public static final TrophyAnimator INSTANCE = new TrophyAnimator();
+
+    private static final int REDUCED_RATE = 4;
+
+    // Squared camera distance of the nearest trophy showing each entity since the last tick
+    private final Reference2DoubleOpenHashMap<Entity> requests = new Reference2DoubleOpenHashMap<>();
+    // Ticks between updates of each animated entity
+    private final Reference2IntOpenHashMap<Entity> rates = new Reference2IntOpenHashMap<>();
+    // Ticks each animated entity is aged by
+    private final Reference2IntOpenHashMap<Entity> ages = new Reference2IntOpenHashMap<>();
+    // Rest pose of the entity and passengers being drawn, see pose and restore
+    private int[] restTicks = new int[4];
+    private float[] restHeadRots = new float[8];
+    private int tickCounter = 0;
+
+    /**
+     * Records a placed trophy entity about to be drawn at the squared distance from the camera and returns the partial
+     * tick to draw it with. Entities that are not animated every tick are drawn at their last pose.
+     */
+    public float request(Entity entity, double distanceSqr) {
+        requests.mergeDouble(entity, distanceSqr, Math::min);
+        return rates.getInt(entity) == 1 ? Minecraft.getInstance().getTimer().getGameTimeDeltaPartialTick(false) : 1F;
+    }
+
+    /**
+     * Puts the entity and its passengers in their animated pose for a draw, returns false when it isn't animated.
+     * Must be followed by {@link #restore} after the draw.
+     */
+    public boolean pose(Entity entity) {
+        int age = ages.getInt(entity);
+        if (age == 0) {
+            return false;
+        }
+        pose(entity, age, 0);
+        return true;
+    }
+
+    private int pose(Entity part, int age, int index) {
+        if (index >= restTicks.length) {
+            restTicks = Arrays.copyOf(restTicks, index * 2);
+            restHeadRots = Arrays.copyOf(restHeadRots, index * 4);
+        }
+        restTicks[index] = part.tickCount;
+        part.tickCount += age;
+        if (part instanceof LivingEntity livingEntity) {
+            restHeadRots[index * 2] = livingEntity.yHeadRot;
+            restHeadRots[index * 2 + 1] = livingEntity.yHeadRotO;
+            // Relative to the rest pose to keep the head rotation the trophy was saved with
+            livingEntity.yHeadRotO = livingEntity.yHeadRot + getHeadSway(age - 1);
+            livingEntity.yHeadRot += getHeadSway(age);
+        }
+        int next = index + 1;
+        List<Entity> passengers = part.getPassengers();
+        for (int i = 0; i < passengers.size(); i++) {
+            next = pose(passengers.get(i), age, next);
+        }
+        return next;
+    }
+
+    /**
+     * Puts an entity posed with {@link #pose} back at rest
+     */
+    public void restore(Entity entity) {
+        restore(entity, 0);
+    }
+
+    private int restore(Entity part, int index) {
+        part.tickCount = restTicks[index];
+        if (part instanceof LivingEntity livingEntity) {
+            livingEntity.yHeadRot = restHeadRots[index * 2];
+            livingEntity.yHeadRotO = restHeadRots[index * 2 + 1];
+        }
+        int next = index + 1;
+        List<Entity> passengers = part.getPassengers();
+        for (int i = 0; i < passengers.size(); i++) {
+            next = restore(passengers.get(i), next);
+        }
+        return next;
+    }
+
+    public void tick() {
+        rates.clear();
+        // Entities that weren't drawn go back to rest
+        ages.keySet().retainAll(requests.keySet());
+        int distance = TrophyManagerConfig.CLIENT.animationDistance.get();
+        if (distance > 0 && !requests.isEmpty()) {
+            List<Object2DoubleMap.Entry<Entity>> nearest = new ObjectArrayList<>(requests.reference2DoubleEntrySet());
+            nearest.sort(Comparator.comparingDouble(Object2DoubleMap.Entry::getDoubleValue));
+
+            int budget = TrophyManagerConfig.CLIENT.animationBudget.get();
+            double fullRateDistance = distance * distance / 4D;
+            for (Object2DoubleMap.Entry<Entity> request : nearest) {
+                if (budget <= 0 || request.getDoubleValue() > distance * distance) {
+                    break;
+                }
+                Entity entity = request.getKey();
+                int rate = request.getDoubleValue() <= fullRateDistance ? 1 : REDUCED_RATE;
+                rates.put(entity, rate);
+                if ((tickCounter + entity.getId()) % rate == 0) {
+                    ages.addTo(entity, rate);
+                    budget -= 1 + entity.getIndirectPassengers().size();
+                }
+            }
+        } else {
+            ages.clear();
+        }
+        requests.clear();
+        tickCounter++;
+    }
+
+    public int size() {
+        return rates.size();
+    }
+
+    public void clear() {
+        requests.clear();
+        rates.clear();
+        ages.clear();
+    }
+
+    private static float getHeadSway(int age) {
+        return Mth.sin(age / 40F) * 15F;
+    }
+}
@@ -0,0 +1,188 @@
+package cy.jdkdigital.trophymanager.client.render.impostor;
+
+import com.mojang.blaze3d.platform.Lighting;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.blaze3d.vertex.VertexSorting;
+import com.mojang.math.Axis;
+import cy.jdkdigital.trophymanager.TrophyManager;
+import cy.jdkdigital.trophymanager.client.render.TrophyFramePlan;
+import cy.jdkdigital.trophymanager.client.render.TrophyTileAtlas;
+import cy.jdkdigital.trophymanager.client.render.block.TrophyBlockEntityRenderer;
+import cy.jdkdigital.trophymanager.client.render.block.TrophyRenderState;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityKey;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.core.BlockPos;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.util.Mth;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import org.joml.Matrix4f;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Camera facing sprites drawn instead of the entity for trophies far away.
+ * Each trophy entity is rendered offscreen into a tile of a {@link TrophyTileAtlas} once per view angle, tiles are
+ * rendered a few per frame before the level is drawn and reused by every trophy showing the same entity. Within the
+ * fade distance the sprite fades in on top of the model, the model itself stays opaque until the sprite fully replaces
+ * it. Render thread only.
+ */
+public class TrophyImpostors
+{
+    public static final TrophyImpostors INSTANCE = new TrophyImpostors();
+    public static final ResourceLocation ATLAS_LOCATION = ResourceLocation.fromNamespaceAndPath(TrophyManager.MODID, "impostor_atlas");
+
+    // Number of view angles a trophy is rendered from
+    private static final int VIEW_ANGLES = 8;
+    private static final int TILES_PER_FRAME = 4;
+
+    private final TrophyTileAtlas<TileKey, Tile> atlas = new TrophyTileAtlas<>(ATLAS_LOCATION, 1024, 64);
+    private final Map<TileKey, Request> pending = new LinkedHashMap<>();
+
+    /**
+     * How much of the impostor to show for a trophy at the given distance from the camera, 0 renders only the model
+     * and 1 only the impostor. Called while planning the frame, see {@link TrophyFramePlan}.
+     */
+    public static float getFade(double cameraDistance, int distance, int fadeDistance) {
+        if (distance <= 0) {
+            return 0;
+        }
+        fadeDistance = Math.min(fadeDistance, distance);
+        if (fadeDistance == 0) {
+            return cameraDistance >= distance ? 1 : 0;
+        }
+        return Mth.clamp((float) (cameraDistance - (distance - fadeDistance)) / fadeDistance, 0, 1);
+    }
+
+    /**
+     * Draws the impostor for a trophy, or queues its tile and returns false if it's not rendered yet
+     */
+    public boolean render(Entity entity, TrophyEntityKey entityKey, TrophyRenderState state, BlockPos pos, PoseStack poseStack, MultiBufferSource buffer, int combinedLight, float fade) {
+        Vec3 camera = getCameraPosition();
+        float viewAngle = (float) Math.toDegrees(Math.atan2(camera.x - (pos.getX() + 0.5D), camera.z - (pos.getZ() + 0.5D)));
+        int view = Math.floorMod(Math.round((state.angle() - viewAngle) * VIEW_ANGLES / 360F), VIEW_ANGLES);
+
+        TileKey key = new TileKey(entityKey, view, state.rotX());
+        Tile tile = atlas.get(key);
+        if (tile == null) {
+            pending.putIfAbsent(key, new Request(entity, state.isDragon()));
+            return false;
+        }
+
+        poseStack.pushPose();
+        poseStack.translate(0.5D, state.offsetY() + tile.centerY * state.scale(), 0.5D);
+        poseStack.mulPose(Axis.YP.rotationDegrees(viewAngle));
+
+        float halfSize = tile.halfSize * state.scale();
+        float u0 = atlas.getU(tile.slot);
+        float v0 = atlas.getV(tile.slot);
+        float u1 = u0 + atlas.getTileSpan();
+        float v1 = v0 + atlas.getTileSpan();
+        int alpha = (int) (fade * 255);
+
+        PoseStack.Pose pose = poseStack.last();
+        VertexConsumer consumer = buffer.getBuffer(RenderType.entityTranslucent(ATLAS_LOCATION));
+        vertex(consumer, pose, -halfSize, -halfSize, u0, v0, alpha, combinedLight);
+        vertex(consumer, pose, halfSize, -halfSize, u1, v0, alpha, combinedLight);
+        vertex(consumer, pose, halfSize, halfSize, u1, v1, alpha, combinedLight);
+        vertex(consumer, pose, -halfSize, halfSize, u0, v1, alpha, combinedLight);
+
+        poseStack.popPose();
+        return true;
+    }
+
+    /**
+     * Renders queued tiles into the atlas, must be called outside level rendering
+     */
+    public void renderPendingTiles() {
+        atlas.nextFrame();
+        if (pending.isEmpty() || Minecraft.getInstance().level == null) {
+            return;
+        }
+
+        atlas.begin();
+        Lighting.setupForEntityInInventory();
+
+        int rendered = 0;
+        Iterator<Map.Entry<TileKey, Request>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && rendered < TILES_PER_FRAME) {
+            Map.Entry<TileKey, Request> entry = iterator.next();
+            int slot = atlas.allocateSlot();
+            if (slot < 0) {
+                break;
+            }
+            iterator.remove();
+            atlas.put(entry.getKey(), renderTile(slot, entry.getKey(), entry.getValue()));
+            rendered++;
+        }
+
+        atlas.end();
+    }
+
+    public int size() {
+        return atlas.size();
+    }
+
+    /**
+     * Drops all tiles and frees the atlas and its buffers, they are created again when the next tile is rendered
+     */
+    public void clear() {
+        pending.clear();
+        atlas.clear();
+    }
+
+    private Tile renderTile(int slot, TileKey key, Request request) {
+        Entity entity = request.entity();
+        AABB bounds = entity.getBoundingBox();
+        for (Entity passenger : entity.getIndirectPassengers()) {
+            bounds = bounds.minmax(passenger.getBoundingBox());
+        }
+        bounds = bounds.move(entity.position().reverse());
+        // Models tend to stick out of their bounding box, leave some room
+        float halfSize = (float) Math.max(bounds.getYsize(), Math.max(bounds.getXsize(), bounds.getZsize())) * 0.6F + 0.1F;
+        float centerY = (float) (bounds.minY + bounds.maxY) / 2F;
+
+        MultiBufferSource.BufferSource bufferSource = atlas.beginTile(slot);
+        RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(-halfSize, halfSize, -halfSize, halfSize, -1000F, 1000F), VertexSorting.ORTHOGRAPHIC_Z);
+
+        PoseStack poseStack = new PoseStack();
+        poseStack.translate(-0.5D, -centerY, -0.5D);
+        TrophyBlockEntityRenderer.renderEntityModel(entity, TrophyRenderState.getEntityRotation(key.view() * 360F / VIEW_ANGLES, key.rotX(), request.isDragon()), 1F, 0D, poseStack, bufferSource, LightTexture.FULL_BRIGHT);
+        bufferSource.endBatch();
+
+        return new Tile(slot, halfSize, centerY);
+    }
+
+    private static Vec3 getCameraPosition() {
+        return Minecraft.getInstance().gameRenderer.getMainCamera().getPosition();
+    }
+
+    private static void vertex(VertexConsumer consumer, PoseStack.Pose pose, float x, float y, float u, float v, int alpha, int combinedLight) {
+        consumer.addVertex(pose, x, y, 0).setColor(255, 255, 255, alpha).setUv(u, v).setOverlay(OverlayTexture.NO_OVERLAY).setLight(combinedLight).setNormal(pose, 0, 0, 1);
+    }
+
+    private record TileKey(TrophyEntityKey entityKey, int view, float rotX) {}
+
+    private record Request(Entity entity, boolean isDragon) {}
+
+    private static class Tile extends TrophyTileAtlas.Tile
+    {
+        private final float halfSize;
+        private final float centerY;
+
+        private Tile(int slot, float halfSize, float centerY) {
+            super(slot);
+            this.halfSize = halfSize;
+            this.centerY = centerY;
+        }
+    }
+}
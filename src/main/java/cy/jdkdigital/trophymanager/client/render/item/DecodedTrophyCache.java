@@ -0,0 +1,81 @@
+package cy.jdkdigital.trophymanager.client.render.item;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.RemovalListener;
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import cy.jdkdigital.trophymanager.common.component.TrophyData;
+import cy.jdkdigital.trophymanager.init.ModBlocks;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.multiplayer.ClientLevel;
+import net.minecraft.core.BlockPos;
+
+import javax.annotation.Nullable;
+
+/**
+ * Trophies decoded from item stack data for rendering them as items and worn trophies. Lookups go by the identity of
+ * the stack's trophy data component first, which is the same instance every frame, and only compare component values
+ * on a miss, so every stack showing the same trophy reuses one decoded trophy, also when the stacks were synced
+ * separately. Data is only decoded when neither knows the trophy. Decoded trophies must not be modified.
+ */
+public class DecodedTrophyCache
+{
+    public static final DecodedTrophyCache INSTANCE = new DecodedTrophyCache();
+
+    private static final int MAX_ENTRIES = 256;
+    private static final RemovalListener<TrophyData, TrophyBlockEntity> FORGET_ICON = notification -> TrophyIconAtlas.INSTANCE.forget(notification.getValue());
+
+    private final Cache<TrophyData, TrophyBlockEntity> trophies = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).removalListener(FORGET_ICON).build();
+    private final Cache<TrophyData, TrophyBlockEntity> headTrophies = CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).removalListener(FORGET_ICON).build();
+    // Weak keys are compared by identity, entries go with the stacks holding the component
+    private final Cache<TrophyData, TrophyBlockEntity> components = CacheBuilder.newBuilder().weakKeys().build();
+    private final Cache<TrophyData, TrophyBlockEntity> headComponents = CacheBuilder.newBuilder().weakKeys().build();
+    @Nullable
+    private ClientLevel level = null;
+
+    /**
+     * Returns the decoded trophy, or null when there is no level to decode it in
+     */
+    @Nullable
+    public TrophyBlockEntity get(TrophyData data, boolean isOnHead) {
+        ClientLevel currentLevel = Minecraft.getInstance().level;
+        if (currentLevel == null) {
+            return null;
+        }
+        if (currentLevel != level) {
+            clear();
+            level = currentLevel;
+        }
+
+        Cache<TrophyData, TrophyBlockEntity> componentCache = isOnHead ? headComponents : components;
+        TrophyBlockEntity trophy = componentCache.getIfPresent(data);
+        if (trophy == null) {
+            Cache<TrophyData, TrophyBlockEntity> cache = isOnHead ? headTrophies : trophies;
+            trophy = cache.getIfPresent(data);
+            if (trophy == null) {
+                trophy = new TrophyBlockEntity(BlockPos.ZERO, ModBlocks.TROPHY.get().defaultBlockState());
+                // Loaded before it has a level, decoded trophies aren't placed and have no chunk section to re-mesh
+                trophy.loadData(data, currentLevel.registryAccess());
+                trophy.setLevel(currentLevel);
+                trophy.scale = 0.5f;
+                trophy.isOnHead = isOnHead;
+                cache.put(data, trophy);
+            }
+            componentCache.put(data, trophy);
+        }
+        return trophy;
+    }
+
+    public long size() {
+        return trophies.size() + headTrophies.size();
+    }
+
+    public void clear() {
+        trophies.invalidateAll();
+        headTrophies.invalidateAll();
+        components.invalidateAll();
+        headComponents.invalidateAll();
+        TrophyIconAtlas.INSTANCE.clearTiles();
+        level = null;
+    }
+}
@@ -0,0 +1,225 @@
+package cy.jdkdigital.trophymanager.client.render.item;
+
+import com.mojang.blaze3d.platform.Lighting;
+import com.mojang.blaze3d.systems.RenderSystem;
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.blaze3d.vertex.VertexConsumer;
+import com.mojang.blaze3d.vertex.VertexSorting;
+import cy.jdkdigital.trophymanager.TrophyManager;
+import cy.jdkdigital.trophymanager.client.render.TrophyTileAtlas;
+import cy.jdkdigital.trophymanager.client.render.block.TrophyRenderState;
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import cy.jdkdigital.trophymanager.common.component.TrophyData;
+import cy.jdkdigital.trophymanager.init.ModBlocks;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.renderer.LightTexture;
+import net.minecraft.client.renderer.MultiBufferSource;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.texture.OverlayTexture;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemDisplayContext;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import javax.annotation.Nullable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Icons of trophy items, each trophy is rendered once into a tile of a {@link TrophyTileAtlas} and GUI slots and
+ * simplified world items draw the tile instead of the trophy. Tiles are keyed by the trophy data so every stack of the
+ * same trophy shares one. Tiles are rendered a few per frame before anything is drawn, queued icons wait while every
+ * tile is still on screen. Render thread only.
+ */
+public class TrophyIconAtlas
+{
+    public static final TrophyIconAtlas INSTANCE = new TrophyIconAtlas();
+    public static final ResourceLocation ATLAS_LOCATION = ResourceLocation.fromNamespaceAndPath(TrophyManager.MODID, "icon_atlas");
+
+    // Trophies stick out of their slot, tiles cover twice the slot size
+    private static final float TILE_EXTENT = 1.0F;
+    private static final int TILES_PER_FRAME = 8;
+
+    // Transform the item renderer applies before handing trophy items to the block entity renderer in GUIs, resolved
+    // from the item model once it's loaded
+    private static final Matrix4f DISPLAY_TRANSFORM = new Matrix4f();
+    private static final Matrix4f INVERSE_DISPLAY_TRANSFORM = new Matrix4f();
+    private static float displayScale = 1F;
+    private static boolean isDisplayTransformResolved = false;
+
+    private final TrophyTileAtlas<IconKey, TrophyTileAtlas.Tile> atlas = new TrophyTileAtlas<>(ATLAS_LOCATION, 2048, 128);
+    // Decoded trophies to render icons of, dropped when the decoded trophy is, see DecodedTrophyCache
+    private final Map<TrophyBlockEntity, TrophyData> pending = new LinkedHashMap<>();
+    private final Matrix4f iconPose = new Matrix4f();
+    private final Vector3f scratch = new Vector3f();
+
+    /**
+     * Draws the icon of a decoded trophy, or queues it and returns false if it's not rendered yet. The pose is the
+     * one the item renderer passes to the block entity renderer for the GUI display context.
+     */
+    public boolean render(TrophyData data, TrophyBlockEntity trophy, PoseStack poseStack, MultiBufferSource buffer) {
+        TrophyTileAtlas.Tile tile = getTile(data, trophy);
+        if (tile == null) {
+            return false;
+        }
+        int slot = tile.slot;
+
+        // Undo the item display transform to draw flat over the slot
+        resolveDisplayTransform();
+        Matrix4f pose = iconPose.set(poseStack.last().pose()).mul(INVERSE_DISPLAY_TRANSFORM);
+        VertexConsumer consumer = buffer.getBuffer(RenderType.text(ATLAS_LOCATION));
+        float u0 = atlas.getU(slot);
+        float v0 = atlas.getV(slot);
+        float u1 = u0 + atlas.getTileSpan();
+        float v1 = v0 + atlas.getTileSpan();
+        consumer.addVertex(pose, -TILE_EXTENT, -TILE_EXTENT, 0).setColor(255, 255, 255, 255).setUv(u0, v0).setLight(LightTexture.FULL_BRIGHT);
+        consumer.addVertex(pose, TILE_EXTENT, -TILE_EXTENT, 0).setColor(255, 255, 255, 255).setUv(u1, v0).setLight(LightTexture.FULL_BRIGHT);
+        consumer.addVertex(pose, TILE_EXTENT, TILE_EXTENT, 0).setColor(255, 255, 255, 255).setUv(u1, v1).setLight(LightTexture.FULL_BRIGHT);
+        consumer.addVertex(pose, -TILE_EXTENT, TILE_EXTENT, 0).setColor(255, 255, 255, 255).setUv(u0, v1).setLight(LightTexture.FULL_BRIGHT);
+        return true;
+    }
+
+    /**
+     * Draws the icon of a decoded trophy shown as a world item, either flat in the item's orientation or facing the
+     * camera. Returns false and queues the icon if it's not rendered yet.
+     */
+    public boolean renderInWorld(TrophyData data, TrophyBlockEntity trophy, PoseStack poseStack, MultiBufferSource buffer, int combinedLight, boolean faceCamera) {
+        TrophyTileAtlas.Tile tile = getTile(data, trophy);
+        if (tile == null) {
+            return false;
+        }
+        int slot = tile.slot;
+
+        // The icon is drawn at the size the trophy has in GUIs relative to its model
+        resolveDisplayTransform();
+        float halfSize = TILE_EXTENT / displayScale;
+        poseStack.pushPose();
+        poseStack.translate(0.5F, 0.5F, 0.5F);
+        if (faceCamera) {
+            Matrix4f pose = poseStack.last().pose();
+            halfSize *= pose.getScale(scratch).x();
+            Vector3f center = pose.getTranslation(scratch);
+            poseStack.setIdentity();
+            poseStack.translate(center.x(), center.y(), center.z());
+            poseStack.mulPose(Minecraft.getInstance().getEntityRenderDispatcher().cameraOrientation());
+        }
+
+        PoseStack.Pose pose = poseStack.last();
+        VertexConsumer consumer = buffer.getBuffer(RenderType.entityTranslucent(ATLAS_LOCATION));
+        float u0 = atlas.getU(slot);
+        float v0 = atlas.getV(slot);
+        float u1 = u0 + atlas.getTileSpan();
+        float v1 = v0 + atlas.getTileSpan();
+        worldVertex(consumer, pose, -halfSize, -halfSize, u0, v0, combinedLight);
+        worldVertex(consumer, pose, halfSize, -halfSize, u1, v0, combinedLight);
+        worldVertex(consumer, pose, halfSize, halfSize, u1, v1, combinedLight);
+        worldVertex(consumer, pose, -halfSize, halfSize, u0, v1, combinedLight);
+        poseStack.popPose();
+        return true;
+    }
+
+    /**
+     * Returns the tile of a trophy's icon, queueing the icon if it's not rendered yet
+     */
+    @Nullable
+    private TrophyTileAtlas.Tile getTile(TrophyData data, TrophyBlockEntity trophy) {
+        TrophyTileAtlas.Tile tile = atlas.get(new IconKey(data, trophy.isOnHead));
+        if (tile == null && (TrophyRenderState.get(trophy).type() != TrophyRenderState.Type.ENTITY || trophy.getCachedEntity() != null)) {
+            // Don't capture entity trophies before their entity is built
+            pending.putIfAbsent(trophy, data);
+        }
+        return tile;
+    }
+
+    /**
+     * Renders queued icons into the atlas, must be called outside level and GUI rendering
+     */
+    public void renderPendingTiles() {
+        atlas.nextFrame();
+        if (pending.isEmpty() || Minecraft.getInstance().level == null) {
+            return;
+        }
+
+        atlas.begin();
+        RenderSystem.setProjectionMatrix(new Matrix4f().setOrtho(-TILE_EXTENT, TILE_EXTENT, -TILE_EXTENT, TILE_EXTENT, -1000F, 1000F), VertexSorting.ORTHOGRAPHIC_Z);
+        Lighting.setupFor3DItems();
+        resolveDisplayTransform();
+
+        int rendered = 0;
+        Iterator<Map.Entry<TrophyBlockEntity, TrophyData>> iterator = pending.entrySet().iterator();
+        while (iterator.hasNext() && rendered < TILES_PER_FRAME) {
+            Map.Entry<TrophyBlockEntity, TrophyData> entry = iterator.next();
+            TrophyBlockEntity trophy = entry.getKey();
+            IconKey key = new IconKey(entry.getValue(), trophy.isOnHead);
+            if (!atlas.contains(key)) {
+                int slot = atlas.allocateSlot();
+                if (slot < 0) {
+                    break;
+                }
+                renderTile(slot, trophy);
+                atlas.put(key, new TrophyTileAtlas.Tile(slot));
+                rendered++;
+            }
+            iterator.remove();
+        }
+
+        atlas.end();
+    }
+
+    public int size() {
+        return atlas.size();
+    }
+
+    /**
+     * Stops waiting to render the icon of a decoded trophy that is no longer cached
+     */
+    public void forget(TrophyBlockEntity trophy) {
+        pending.remove(trophy);
+    }
+
+    /**
+     * Drops all icons, called whenever the decoded trophies are dropped
+     */
+    public void clearTiles() {
+        pending.clear();
+        atlas.clearTiles();
+    }
+
+    /**
+     * Drops all icons and frees the atlas and its buffers, they are created again when the next icon is rendered. The
+     * display transform is resolved again too, in case resource packs changed the trophy model.
+     */
+    public void clear() {
+        pending.clear();
+        atlas.clear();
+        isDisplayTransformResolved = false;
+    }
+
+    private void renderTile(int slot, TrophyBlockEntity trophy) {
+        MultiBufferSource.BufferSource bufferSource = atlas.beginTile(slot);
+        PoseStack poseStack = new PoseStack();
+        poseStack.mulPose(DISPLAY_TRANSFORM);
+        Minecraft.getInstance().getBlockEntityRenderDispatcher().renderItem(trophy, poseStack, bufferSource, LightTexture.FULL_BRIGHT, OverlayTexture.NO_OVERLAY);
+        bufferSource.endBatch();
+    }
+
+    private static void resolveDisplayTransform() {
+        if (!isDisplayTransformResolved) {
+            PoseStack poseStack = new PoseStack();
+            Minecraft.getInstance().getItemRenderer().getItemModelShaper().getItemModel(ModBlocks.TROPHY.get().asItem()).applyTransform(ItemDisplayContext.GUI, poseStack, false);
+            poseStack.translate(-0.5F, -0.5F, -0.5F);
+            DISPLAY_TRANSFORM.set(poseStack.last().pose());
+            DISPLAY_TRANSFORM.invert(INVERSE_DISPLAY_TRANSFORM);
+            displayScale = DISPLAY_TRANSFORM.getScale(new Vector3f()).x();
+            isDisplayTransformResolved = true;
+        }
+    }
+
+    private static void worldVertex(VertexConsumer consumer, PoseStack.Pose pose, float x, float y, float u, float v, int combinedLight) {
+        consumer.addVertex(pose, x, y, 0).setColor(255, 255, 255, 255).setUv(u, v).setOverlay(OverlayTexture.NO_OVERLAY).setLight(combinedLight).setNormal(pose, 0, 0, 1);
+    }
+
+    // Worn trophies are drawn without their base and get their own tiles
+    private record IconKey(TrophyData data, boolean isOnHead) {}
+}
@@ -1,40 +1,50 @@
 package cy.jdkdigital.trophymanager.client.render.item;
 
 import com.mojang.blaze3d.vertex.PoseStack;
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.client.render.block.TrophyRenderState;
 import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
-import cy.jdkdigital.trophymanager.init.ModBlocks;
+import cy.jdkdigital.trophymanager.common.component.TrophyData;
+import cy.jdkdigital.trophymanager.init.ModDataComponents;
 import net.minecraft.client.Minecraft;
+import net.minecraft.client.gui.screens.inventory.AbstractContainerScreen;
 import net.minecraft.client.renderer.BlockEntityWithoutLevelRenderer;
 import net.minecraft.client.renderer.MultiBufferSource;
-import net.minecraft.core.BlockPos;
-import net.minecraft.core.component.DataComponents;
 import net.minecraft.world.item.ItemDisplayContext;
 import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.state.BlockState;
 
 import javax.annotation.Nonnull;
 
 public class TrophyItemStackRenderer extends BlockEntityWithoutLevelRenderer
 {
-    TrophyBlockEntity blockEntity = null;
-
     public TrophyItemStackRenderer() {
         super(null, null);
     }
 
     @Override
     public void renderByItem(@Nonnull ItemStack stack, @Nonnull ItemDisplayContext transformType, @Nonnull PoseStack matrixStack, @Nonnull MultiBufferSource buffer, int packedLightIn, int packedUV) {
-        if (!stack.has(DataComponents.CUSTOM_DATA)) {
+        TrophyData data = stack.get(ModDataComponents.TROPHY_DATA.get());
+        if (data == null) {
             return;
         }
+        TrophyBlockEntity blockEntity = DecodedTrophyCache.INSTANCE.get(data, transformType.equals(ItemDisplayContext.HEAD));
         if (blockEntity == null) {
-            blockEntity = new TrophyBlockEntity(BlockPos.ZERO, ModBlocks.TROPHY.get().defaultBlockState());
+            return;
+        }
+
+        if (transformType == ItemDisplayContext.GUI && TrophyManagerConfig.CLIENT.cacheGuiIcons.get() && !isLive(stack) && TrophyIconAtlas.INSTANCE.render(data, blockEntity, matrixStack, buffer)) {
+            return;
+        }
+
+        // Worn trophies over the budget are drawn as their icon, or not at all until it's ready
+        if (transformType == ItemDisplayContext.HEAD && !WornTrophyBudget.INSTANCE.isWithinBudget(blockEntity, matrixStack)) {
+            TrophyIconAtlas.INSTANCE.renderInWorld(data, blockEntity, matrixStack, buffer, packedLightIn, false);
+            return;
         }
-        blockEntity.loadData(stack.get(DataComponents.CUSTOM_DATA).copyTag(), Minecraft.getInstance().level.registryAccess());
-        blockEntity.scale = 0.5f;
 
-        blockEntity.isOnHead = false;
-        if (transformType.equals(ItemDisplayContext.HEAD)) {
-            blockEntity.isOnHead = true;
+        if (WorldTrophyItems.isWorldContext(transformType) && renderSimplified(data, blockEntity, WorldTrophyItems.INSTANCE.getRender(matrixStack), matrixStack, buffer, packedLightIn, packedUV)) {
+            return;
         }
 
         matrixStack.pushPose();
@@ -43,4 +53,29 @@ public class TrophyItemStackRenderer extends BlockEntityWithoutLevelRenderer
 
         matrixStack.popPose();
     }
+
+    private static boolean renderSimplified(TrophyData data, TrophyBlockEntity blockEntity, TrophyManagerConfig.WorldItemRender render, PoseStack matrixStack, MultiBufferSource buffer, int packedLightIn, int packedUV) {
+        return switch (render) {
+            case FULL -> false;
+            case ICON, IMPOSTOR -> TrophyIconAtlas.INSTANCE.renderInWorld(data, blockEntity, matrixStack, buffer, packedLightIn, render == TrophyManagerConfig.WorldItemRender.IMPOSTOR);
+            case BASE -> {
+                BlockState baseState = TrophyRenderState.get(blockEntity).baseState();
+                if (baseState != null) {
+                    Minecraft.getInstance().getBlockRenderer().renderSingleBlock(baseState, matrixStack, buffer, packedLightIn, packedUV);
+                }
+                yield true;
+            }
+        };
+    }
+
+    /**
+     * The hovered and held trophy are rendered in full instead of from the icon atlas
+     */
+    private static boolean isLive(ItemStack stack) {
+        Minecraft minecraft = Minecraft.getInstance();
+        if (minecraft.player != null && minecraft.player.containerMenu.getCarried() == stack) {
+            return true;
+        }
+        return minecraft.screen instanceof AbstractContainerScreen<?> screen && screen.getSlotUnderMouse() != null && screen.getSlotUnderMouse().getItem() == stack;
+    }
 }
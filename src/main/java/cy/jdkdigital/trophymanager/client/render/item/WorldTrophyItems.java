@@ -0,0 +1,44 @@
+package cy.jdkdigital.trophymanager.client.render.item;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import net.minecraft.world.item.ItemDisplayContext;
+import org.joml.Matrix4f;
+
+/**
+ * Counts trophies shown as world items, i.e. dropped items, item frames and display entities, and switches all of them
+ * to the configured simplified render while there were too many near the camera last frame. Render thread only.
+ */
+public class WorldTrophyItems
+{
+    public static final WorldTrophyItems INSTANCE = new WorldTrophyItems();
+
+    private int counted = 0;
+    private int countedLastFrame = 0;
+
+    public static boolean isWorldContext(ItemDisplayContext displayContext) {
+        return displayContext == ItemDisplayContext.GROUND || displayContext == ItemDisplayContext.FIXED || displayContext == ItemDisplayContext.NONE;
+    }
+
+    public void beginFrame() {
+        countedLastFrame = counted;
+        counted = 0;
+    }
+
+    /**
+     * Counts a trophy drawn as a world item and returns the render to use for it
+     */
+    public TrophyManagerConfig.WorldItemRender getRender(PoseStack poseStack) {
+        // World poses are relative to the camera
+        Matrix4f pose = poseStack.last().pose();
+        double range = TrophyManagerConfig.CLIENT.worldItemRange.get();
+        if (pose.m30() * pose.m30() + pose.m31() * pose.m31() + pose.m32() * pose.m32() <= range * range) {
+            counted++;
+        }
+        return countedLastFrame > TrophyManagerConfig.CLIENT.worldItemThreshold.get() ? TrophyManagerConfig.CLIENT.worldItemRender.get() : TrophyManagerConfig.WorldItemRender.FULL;
+    }
+
+    public int getCount() {
+        return countedLastFrame;
+    }
+}
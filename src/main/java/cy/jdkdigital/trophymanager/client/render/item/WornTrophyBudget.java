@@ -0,0 +1,56 @@
+package cy.jdkdigital.trophymanager.client.render.item;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import it.unimi.dsi.fastutil.floats.FloatArrayList;
+import net.minecraft.world.phys.AABB;
+import org.joml.Matrix4f;
+import org.joml.Vector3f;
+
+import java.util.Arrays;
+
+/**
+ * Limits how many trophies worn on the head or in Curios slots are rendered in full each frame. Trophies are ranked
+ * by their size on screen, taken as their size over their distance to the camera, and everything below the ranks
+ * that fit last frame's budget is drawn from its cached icon. Render thread only.
+ */
+public class WornTrophyBudget
+{
+    public static final WornTrophyBudget INSTANCE = new WornTrophyBudget();
+
+    private final FloatArrayList priorities = new FloatArrayList();
+    // Lowest priority rendered in full this frame
+    private float cutoff = 0;
+
+    public void beginFrame() {
+        int budget = TrophyManagerConfig.CLIENT.wornTrophyBudget.get();
+        if (priorities.size() <= budget) {
+            cutoff = 0;
+        } else if (budget == 0) {
+            cutoff = Float.POSITIVE_INFINITY;
+        } else {
+            float[] sorted = priorities.toFloatArray();
+            Arrays.sort(sorted);
+            cutoff = sorted[sorted.length - budget];
+        }
+        priorities.clear();
+    }
+
+    /**
+     * Records a worn trophy about to be drawn and returns whether it may be rendered in full
+     */
+    public boolean isWithinBudget(TrophyBlockEntity trophy, PoseStack poseStack) {
+        // Entity poses are relative to the camera
+        Matrix4f pose = poseStack.last().pose();
+        double distance = Math.sqrt(pose.m30() * pose.m30() + pose.m31() * pose.m31() + pose.m32() * pose.m32());
+        AABB bounds = trophy.getRenderBounds();
+        float priority = (float) (bounds.getSize() * pose.getScale(new Vector3f()).x() / Math.max(distance, 0.1D));
+        priorities.add(priority);
+        return priority >= cutoff;
+    }
+
+    public int size() {
+        return priorities.size();
+    }
+}
@@ -0,0 +1,161 @@
+package cy.jdkdigital.trophymanager.client.render.model;
+
+import com.mojang.blaze3d.vertex.PoseStack;
+import com.mojang.math.Transformation;
+import cy.jdkdigital.trophymanager.client.render.block.TrophyBlockEntityRenderer;
+import cy.jdkdigital.trophymanager.client.render.block.TrophyRenderState;
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import net.minecraft.client.Minecraft;
+import net.minecraft.client.color.item.ItemColors;
+import net.minecraft.client.renderer.RenderType;
+import net.minecraft.client.renderer.block.model.BakedQuad;
+import net.minecraft.client.renderer.texture.TextureAtlasSprite;
+import net.minecraft.client.resources.model.BakedModel;
+import net.minecraft.core.Direction;
+import net.minecraft.util.RandomSource;
+import net.minecraft.world.item.BlockItem;
+import net.minecraft.world.item.ItemDisplayContext;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.level.block.HorizontalDirectionalBlock;
+import net.minecraft.world.level.block.RenderShape;
+import net.minecraft.world.level.block.state.BlockState;
+import net.neoforged.neoforge.client.ChunkRenderTypeSet;
+import net.neoforged.neoforge.client.model.BakedModelWrapper;
+import net.neoforged.neoforge.client.model.IQuadTransformer;
+import net.neoforged.neoforge.client.model.QuadTransformers;
+import net.neoforged.neoforge.client.model.data.ModelData;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Block model of placed trophies. Emits the quads of the base block and, for item trophies that don't rotate, the
+ * item, so the static parts of a trophy are meshed with the chunk instead of being drawn by the block entity renderer
+ * every frame. Used from the chunk builder threads.
+ */
+public class TrophyBakedModel extends BakedModelWrapper<BakedModel>
+{
+    // Item textures are on the block atlas, translucent block items are left to the block entity renderer
+    private static final ChunkRenderTypeSet ITEM_RENDER_TYPES = ChunkRenderTypeSet.of(RenderType.cutout());
+
+    public TrophyBakedModel(BakedModel originalModel) {
+        super(originalModel);
+    }
+
+    /**
+     * Whether the base block is part of the chunk mesh, other render shapes are drawn by the block entity renderer
+     */
+    public static boolean isBaked(BlockState baseState) {
+        return baseState.getRenderShape() == RenderShape.MODEL;
+    }
+
+    /**
+     * Whether a static item can be part of the chunk mesh. Items with custom renderers, glint or tint are drawn by
+     * the block entity renderer.
+     */
+    public static boolean canBakeItem(ItemStack stack) {
+        return !stack.isEmpty() && getItemModel(stack) != null;
+    }
+
+    @Nonnull
+    @Override
+    public List<BakedQuad> getQuads(@Nullable BlockState state, @Nullable Direction side, @Nonnull RandomSource rand, @Nonnull ModelData data, @Nullable RenderType renderType) {
+        BlockState baseState = data.get(TrophyBlockEntity.BASE_STATE);
+        if (baseState == null) {
+            return super.getQuads(state, side, rand, data, renderType);
+        }
+
+        List<BakedQuad> quads = new ArrayList<>();
+        if (isBaked(baseState)) {
+            BakedModel baseModel = getBlockModel(baseState);
+            if (renderType == null || baseModel.getRenderTypes(baseState, rand, ModelData.EMPTY).contains(renderType)) {
+                quads.addAll(baseModel.getQuads(baseState, side, rand, ModelData.EMPTY, renderType));
+            }
+        }
+
+        TrophyBlockEntity.StaticItem staticItem = data.get(TrophyBlockEntity.STATIC_ITEM);
+        if (staticItem != null && state != null && side == null && (renderType == null || ITEM_RENDER_TYPES.contains(renderType))) {
+            quads.addAll(getItemQuads(state, staticItem, rand));
+        }
+        return quads;
+    }
+
+    @Nonnull
+    @Override
+    public ChunkRenderTypeSet getRenderTypes(@Nonnull BlockState state, @Nonnull RandomSource rand, @Nonnull ModelData data) {
+        BlockState baseState = data.get(TrophyBlockEntity.BASE_STATE);
+        if (baseState == null) {
+            return super.getRenderTypes(state, rand, data);
+        }
+        ChunkRenderTypeSet renderTypes = isBaked(baseState) ? getBlockModel(baseState).getRenderTypes(baseState, rand, ModelData.EMPTY) : ChunkRenderTypeSet.none();
+        return data.get(TrophyBlockEntity.STATIC_ITEM) != null ? ChunkRenderTypeSet.union(renderTypes, ITEM_RENDER_TYPES) : renderTypes;
+    }
+
+    @Nonnull
+    @Override
+    public TextureAtlasSprite getParticleIcon(@Nonnull ModelData data) {
+        BlockState baseState = data.get(TrophyBlockEntity.BASE_STATE);
+        if (baseState != null && isBaked(baseState)) {
+            return getBlockModel(baseState).getParticleIcon(ModelData.EMPTY);
+        }
+        return super.getParticleIcon(data);
+    }
+
+    /**
+     * Item quads moved to where the block entity renderer would draw the item, see {@link TrophyBlockEntityRenderer}
+     */
+    private static List<BakedQuad> getItemQuads(BlockState state, TrophyBlockEntity.StaticItem staticItem, RandomSource rand) {
+        BakedModel model = getItemModel(staticItem.item());
+        if (model == null) {
+            return List.of();
+        }
+
+        PoseStack poseStack = new PoseStack();
+        double tick = TrophyRenderState.getStaticItemTick(state.getValue(HorizontalDirectionalBlock.FACING));
+        TrophyBlockEntityRenderer.transformItem(poseStack, tick, staticItem.offsetY(), staticItem.scale());
+        model = model.applyTransform(ItemDisplayContext.FIXED, poseStack, false);
+        poseStack.translate(-0.5F, -0.5F, -0.5F);
+        IQuadTransformer transformer = QuadTransformers.applying(new Transformation(poseStack.last().pose()));
+
+        // Items are never culled against neighbours, everything goes in the unculled list
+        List<BakedQuad> quads = new ArrayList<>();
+        for (BakedModel pass : model.getRenderPasses(staticItem.item(), true)) {
+            for (Direction direction : Direction.values()) {
+                rand.setSeed(42L);
+                quads.addAll(transformer.process(pass.getQuads(null, direction, rand)));
+            }
+            rand.setSeed(42L);
+            quads.addAll(transformer.process(pass.getQuads(null, null, rand)));
+        }
+        return quads;
+    }
+
+    @Nullable
+    private static BakedModel getItemModel(ItemStack stack) {
+        if (stack.hasFoil() || hasTint(stack)) {
+            return null;
+        }
+        BakedModel model = Minecraft.getInstance().getItemRenderer().getModel(stack, null, null, 0);
+        if (model.isCustomRenderer()) {
+            return null;
+        }
+        if (stack.getItem() instanceof BlockItem blockItem) {
+            BlockState blockState = blockItem.getBlock().defaultBlockState();
+            if (getBlockModel(blockState).getRenderTypes(blockState, RandomSource.create(42L), ModelData.EMPTY).contains(RenderType.translucent())) {
+                return null;
+            }
+        }
+        return model;
+    }
+
+    private static boolean hasTint(ItemStack stack) {
+        ItemColors itemColors = Minecraft.getInstance().getItemColors();
+        return itemColors.getColor(stack, 0) != -1 || itemColors.getColor(stack, 1) != -1;
+    }
+
+    private static BakedModel getBlockModel(BlockState state) {
+        return Minecraft.getInstance().getBlockRenderer().getBlockModel(state);
+    }
+}
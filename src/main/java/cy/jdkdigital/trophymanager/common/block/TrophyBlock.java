@@ -6,20 +6,21 @@ import com.mojang.serialization.codecs.RecordCodecBuilder;
 import cy.jdkdigital.trophymanager.TrophyManager;
 import cy.jdkdigital.trophymanager.TrophyManagerConfig;
 import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityTypeInfo;
+import cy.jdkdigital.trophymanager.common.component.TrophyData;
 import cy.jdkdigital.trophymanager.init.ModBlocks;
+import cy.jdkdigital.trophymanager.init.ModDataComponents;
 import cy.jdkdigital.trophymanager.init.ModTags;
 //import cy.jdkdigital.trophymanager.network.Networking;
 import cy.jdkdigital.trophymanager.network.PacketOpenGui;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.Direction;
 import net.minecraft.core.Holder;
-import net.minecraft.core.component.DataComponents;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.network.chat.Component;
 import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.sounds.SoundEvent;
 import net.minecraft.sounds.SoundEvents;
 import net.minecraft.sounds.SoundSource;
 import net.minecraft.world.InteractionHand;
@@ -27,11 +28,8 @@ import net.minecraft.world.InteractionResult;
 import net.minecraft.world.ItemInteractionResult;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
-import net.minecraft.world.entity.LivingEntity;
-import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.player.Player;
 import net.minecraft.world.item.*;
-import net.minecraft.world.item.component.CustomData;
 import net.minecraft.world.item.context.BlockPlaceContext;
 import net.minecraft.world.level.BlockGetter;
 import net.minecraft.world.level.Level;
@@ -93,7 +91,7 @@ public class TrophyBlock extends BaseEntityBlock implements SimpleWaterloggedBlo
 
     @Override
     public RenderShape getRenderShape(@Nonnull BlockState state) {
-        return RenderShape.ENTITYBLOCK_ANIMATED;
+        return RenderShape.MODEL;
     }
 
     @Override
@@ -106,15 +104,6 @@ public class TrophyBlock extends BaseEntityBlock implements SimpleWaterloggedBlo
         return false;
     }
 
-    @Override
-    public void setPlacedBy(Level level, @Nonnull BlockPos pos, @Nonnull BlockState state, @Nullable LivingEntity player, @Nonnull ItemStack stack) {
-        // Read data from stack
-        BlockEntity tileEntity = level.getBlockEntity(pos);
-        if (!level.isClientSide() && tileEntity instanceof TrophyBlockEntity && stack.has(DataComponents.CUSTOM_DATA)) {
-            ((TrophyBlockEntity) tileEntity).loadData(stack.get(DataComponents.CUSTOM_DATA).copyTag(), level.registryAccess());
-        }
-    }
-
     @Nullable
     @Override
     public BlockEntity newBlockEntity(BlockPos pos, BlockState state) {
@@ -124,13 +113,8 @@ public class TrophyBlock extends BaseEntityBlock implements SimpleWaterloggedBlo
     @Override
     public ItemStack getCloneItemStack(BlockState state, HitResult target, LevelReader level, BlockPos pos, Player player) {
         ItemStack stack = new ItemStack(ModBlocks.TROPHY.get());
-        if (level.getBlockEntity(pos) instanceof TrophyBlockEntity trophyTile && trophyTile.getLevel() != null) {
-            try {
-                CompoundTag tag = trophyTile.saveWithoutMetadata(trophyTile.getLevel().registryAccess());
-                stack.set(DataComponents.CUSTOM_DATA, CustomData.of(tag.getCompound("TrophyData")));
-            } catch (Exception e) {
-                // Crash can happen here if the server is shutting down as the client (WAILA) is trying to read the data
-            }
+        if (level.getBlockEntity(pos) instanceof TrophyBlockEntity trophyTile) {
+            stack.set(ModDataComponents.TROPHY_DATA.get(), trophyTile.getTrophyData());
         }
         return stack;
     }
@@ -142,7 +126,7 @@ public class TrophyBlock extends BaseEntityBlock implements SimpleWaterloggedBlo
             if (heldBlock.defaultBlockState().is(ModTags.TROPHY_BASE)) {
                 final BlockEntity blockEntity = pLevel.getBlockEntity(pPos);
                 if (blockEntity instanceof TrophyBlockEntity) {
-                    ((TrophyBlockEntity) blockEntity).baseBlock = BuiltInRegistries.BLOCK.getKey(heldBlock);
+                    ((TrophyBlockEntity) blockEntity).setBaseBlock(BuiltInRegistries.BLOCK.getKey(heldBlock));
                     if (!pLevel.isClientSide()) {
                         pLevel.setBlockAndUpdate(pPos, pState);
                     }
@@ -253,12 +237,10 @@ public class TrophyBlock extends BaseEntityBlock implements SimpleWaterloggedBlo
                                 }
                                 break;
                             default:
-                                Entity e = ((TrophyBlockEntity) te).getCachedEntity();
-                                if (e instanceof Mob) {
-                                    SoundEvent sound = ((Mob) e).getAmbientSound();
-                                    if (sound != null) {
-                                        level.playSound(null, pos, sound, SoundSource.HOSTILE, 1.0F, 1.0F);
-                                    }
+                                // The sound is resolved once per type, the server never builds the trophy entity for it
+                                TrophyEntityTypeInfo info = ((TrophyBlockEntity) te).getEntityTypeInfo();
+                                if (info != null && info.ambientSound() != null) {
+                                    level.playSound(null, pos, info.ambientSound(), SoundSource.HOSTILE, 1.0F, 1.0F);
                                 }
                                 break;
                         }
@@ -269,17 +251,13 @@ public class TrophyBlock extends BaseEntityBlock implements SimpleWaterloggedBlo
     }
 
     public static ItemStack createPlayerTrophy(Player player) {
-        CompoundTag trophyTag = new CompoundTag();
         ItemStack trophy = new ItemStack(ModBlocks.TROPHY.get());
-        trophyTag.putString("TrophyType", "entity");
 
         CompoundTag entityTag = new CompoundTag();
         entityTag.putString("entityType", "trophymanager:player");
         entityTag.putString("uuid", player.getUUID().toString());
-        trophyTag.putString("Name", player.getDisplayName().getString() + " trophy");
-        trophyTag.put("TrophyEntity", entityTag);
 
-        trophy.set(DataComponents.CUSTOM_DATA, CustomData.of(trophyTag));
+        trophy.set(ModDataComponents.TROPHY_DATA.get(), TrophyData.ofEntity(entityTag, player.getDisplayName().getString() + " trophy"));
 
         return trophy;
     }
@@ -301,42 +279,50 @@ public class TrophyBlock extends BaseEntityBlock implements SimpleWaterloggedBlo
             });
         }
 
-        CompoundTag trophyTag = new CompoundTag();
         ItemStack trophy = new ItemStack(ModBlocks.TROPHY.get());
-        trophyTag.putString("TrophyType", "entity");
         entityTag.putString("entityType", entityId);
         if (tag.contains("Age")) {
             if (tag.getInt("Age") < 0) {
                 entityTag.putInt("Age", -1);
             }
         }
+        Float scale = null;
+        Float rotX = null;
+        Double offsetY = null;
         switch (entityId) {
             case "axolotl" -> entityTag.putInt("Variant", 4);
             case "ender_dragon" -> {
-                trophyTag.putFloat("Scale", 0.1f);
-                trophyTag.putDouble("OffsetY", 0.8d);
+                scale = 0.1f;
+                offsetY = 0.8d;
             }
             case "ghast" -> {
-                trophyTag.putFloat("Scale", 0.4f);
-                trophyTag.putDouble("OffsetY", 1.4d);
+                scale = 0.4f;
+                offsetY = 1.4d;
             }
-            case "bee", "phantom", "vex" -> trophyTag.putDouble("OffsetY", 0.8d);
+            case "bee", "phantom", "vex" -> offsetY = 0.8d;
             case "pufferfish" -> entityTag.putInt("PuffState", 1);
             case "shulker" -> {
                 entityTag.putInt("Color", 2);
                 entityTag.putInt("Peek", 30);
             }
             case "glow_squid" -> {
-                trophyTag.putFloat("Scale", 0.4f);
-                trophyTag.putFloat("RotX", 70f);
-                trophyTag.putDouble("OffsetY", 0.7d);
+                scale = 0.4f;
+                rotX = 70f;
+                offsetY = 0.7d;
             }
         }
 
-        trophyTag.put("TrophyEntity", entityTag);
-        trophyTag.putString("Name", name + " trophy");
-
-        trophy.set(DataComponents.CUSTOM_DATA, CustomData.of(trophyTag));
+        TrophyData trophyData = TrophyData.ofEntity(entityTag, name + " trophy");
+        if (scale != null) {
+            trophyData = trophyData.withScale(scale);
+        }
+        if (rotX != null) {
+            trophyData = trophyData.withRotX(rotX);
+        }
+        if (offsetY != null) {
+            trophyData = trophyData.withOffsetY(offsetY);
+        }
+        trophy.set(ModDataComponents.TROPHY_DATA.get(), trophyData);
 
         return trophy;
     }
@@ -2,13 +2,23 @@ package cy.jdkdigital.trophymanager.common.blockentity;
 
 import cy.jdkdigital.trophymanager.TrophyManager;
 import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityBuildQueue;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityCache;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityKey;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityTypeInfo;
+import cy.jdkdigital.trophymanager.common.component.TrophyData;
+import cy.jdkdigital.trophymanager.common.level.TrophyDisplayLevel;
 import cy.jdkdigital.trophymanager.init.ModBlockEntities;
+import cy.jdkdigital.trophymanager.init.ModDataComponents;
 import net.minecraft.core.BlockPos;
 import net.minecraft.core.HolderLookup;
 import net.minecraft.core.NonNullList;
+import net.minecraft.core.component.DataComponentMap;
+import net.minecraft.core.component.DataComponents;
 import net.minecraft.core.registries.BuiltInRegistries;
 import net.minecraft.nbt.CompoundTag;
 import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.network.Connection;
 import net.minecraft.network.protocol.game.ClientboundBlockEntityDataPacket;
 import net.minecraft.resources.ResourceLocation;
@@ -17,25 +27,34 @@ import net.minecraft.world.InteractionResult;
 import net.minecraft.world.ItemInteractionResult;
 import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.entity.Mob;
 import net.minecraft.world.entity.NeutralMob;
-import net.minecraft.world.entity.decoration.ArmorStand;
 import net.minecraft.world.item.*;
 import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.minecraft.world.level.block.Blocks;
 import net.minecraft.world.level.block.entity.BlockEntity;
 import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.phys.AABB;
+import net.neoforged.neoforge.client.model.data.ModelData;
+import net.neoforged.neoforge.client.model.data.ModelProperty;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.Nullable;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 public class TrophyBlockEntity extends BlockEntity
 {
-    private static final Map<Integer, Entity> cachedEntities = new HashMap<>();
+    // Model data read by the trophy block model, placed trophies mesh their base block and static item with the chunk
+    public static final ModelProperty<BlockState> BASE_STATE = new ModelProperty<>();
+    public static final ModelProperty<StaticItem> STATIC_ITEM = new ModelProperty<>();
+    // Told about trophies placed in the client level, set by the client
+    @Nullable
+    private static PlacementListener clientPlacementListener = null;
+    private static final String[] NON_DISPLAY_KEYS = {"Brain", "attributes", "Attributes", "Offers", "Gossips", "Inventory", "Xp", "Leash", "UUID", "Motion", "HandDropChances", "ArmorDropChances", "DeathLootTable", "DeathLootTableSeed"};
 
     public String trophyType = "item"; // item, entity
     public ItemStack item = null;
@@ -44,18 +63,90 @@ public class TrophyBlockEntity extends BlockEntity
     public float rotX = 0.0F;
     public float scale = 1.0F;
     public ResourceLocation baseBlock;
+    @Nullable
+    private Block resolvedBaseBlock = null;
     public boolean isOnHead = false;
     private String name = "";
+    private final NonNullList<ItemStack> armorItems = NonNullList.withSize(4, ItemStack.EMPTY);
+    private final NonNullList<ItemStack> handItems = NonNullList.withSize(2, ItemStack.EMPTY);
+    // Placed trophies hold on to their cached entity until they are unloaded
+    private boolean isPlaced = false;
+    // Entity data exceeding the configured limits is never built
+    private boolean isEntityOverLimit = false;
+    private int passengerCount = 0;
+    @Nullable
+    private TrophyEntityKey entityKey = null;
+    @Nullable
+    private EntityType<?> entityType = null;
+    @Nullable
+    private TrophyEntityKey heldEntityKey = null;
+    @Nullable
+    private TrophyEntityCache heldEntityCache = null;
+    @Nullable
+    private RenderBounds renderBounds = null;
+    // Client only, owned by the renderer, see TrophyRenderState
+    @Nullable
+    private Object renderState = null;
+    @Nullable
+    private BlockState modelBaseState = null;
+    @Nullable
+    private StaticItem modelStaticItem = null;
 
     public TrophyBlockEntity(BlockPos pos, BlockState state) {
         super(ModBlockEntities.TROPHY.get(), pos, state);
     }
 
-//    @Override
-//    public AABB getRenderBoundingBox() {
-//        BlockPos pos = getBlockPos();
-//        return new AABB(pos, pos.offset(1, 2, 1));
-//    }
+    /**
+     * Bounds of everything drawn for the trophy, computed once the entity is built and again when the trophy data,
+     * scale, offset or rotation changes.
+     */
+    public AABB getRenderBounds() {
+        if (renderBounds != null && renderBounds.isFor(this)) {
+            return renderBounds.bounds();
+        }
+        BlockPos pos = getBlockPos();
+        AABB bounds;
+        if (trophyType.equals("entity") && !isEntityOverLimit) {
+            Entity cachedEntity = getCachedEntity();
+            if (cachedEntity == null) {
+                // Not built yet, don't cache the guess
+                return new AABB(pos).expandTowards(0, 1 + Math.abs(scale) * 2, 0).move(0, offsetY, 0).minmax(new AABB(pos));
+            }
+            bounds = getEntityBounds(cachedEntity);
+        } else {
+            // Items are drawn around the center bobbing up and down a little
+            double size = Math.abs(scale) * 0.5 + 0.1;
+            bounds = new AABB(-size, -size, -size, size, size, size).move(0.5, offsetY + 0.5, 0.5);
+        }
+        bounds = bounds.move(pos).minmax(new AABB(pos));
+        renderBounds = new RenderBounds(bounds, entityKey, scale, offsetY, rotX);
+        return bounds;
+    }
+
+    private AABB getEntityBounds(Entity cachedEntity) {
+        AABB entityBounds = cachedEntity.getBoundingBox();
+        for (Entity passenger : cachedEntity.getIndirectPassengers()) {
+            entityBounds = entityBounds.minmax(passenger.getBoundingBox());
+        }
+        entityBounds = entityBounds.move(cachedEntity.position().reverse());
+
+        // The trophy can face any direction
+        double extent = Math.max(Math.max(-entityBounds.minX, entityBounds.maxX), Math.max(-entityBounds.minZ, entityBounds.maxZ));
+        double minY = entityBounds.minY;
+        double maxY = entityBounds.maxY;
+        if (rotX != 0) {
+            // Tilting swings the model around its feet
+            double radius = Math.sqrt(extent * extent + Math.max(minY * minY, maxY * maxY));
+            extent = radius;
+            minY = -radius;
+            maxY = radius;
+        }
+        double size = Math.abs(scale);
+        // Models tend to stick out of their bounding box
+        return new AABB(-extent * size, Math.min(minY * scale, maxY * scale), -extent * size, extent * size, Math.max(minY * scale, maxY * scale), extent * size)
+                .inflate(0.5 * size)
+                .move(0.5, offsetY, 0.5);
+    }
 
     @Override
     protected void loadAdditional(CompoundTag pTag, HolderLookup.Provider pRegistries) {
@@ -94,83 +185,222 @@ public class TrophyBlockEntity extends BlockEntity
     }
 
     public void loadData(CompoundTag tag, HolderLookup.Provider pRegistries) {
-        this.trophyType = tag.contains("TrophyType") ? tag.getString("TrophyType") : "item";
+        loadData(TrophyData.fromTag(tag, pRegistries), pRegistries);
+    }
 
-        if (tag.contains("TrophyItem")) {
-            CompoundTag itemTag = tag.getCompound("TrophyItem");
-            if (!itemTag.contains("Count")) {
-                itemTag.putDouble("Count", 1D);
-            }
-            this.item = ItemStack.parse(pRegistries, itemTag).orElse(ItemStack.EMPTY);
+    public void loadData(TrophyData data, HolderLookup.Provider pRegistries) {
+        this.trophyType = data.type();
+
+        // The trophy data is shared, the block entity gets its own copies
+        ItemStack trophyItem = data.item();
+        if (!trophyItem.isEmpty()) {
+            this.item = trophyItem.copy();
         } else if (this.trophyType.equals("item")) {
             // Default
             this.item = new ItemStack(Items.ENCHANTED_GOLDEN_APPLE);
         }
 
-        if (tag.contains("TrophyEntity")) {
-            this.entity = tag.getCompound("TrophyEntity");
-        }
+        data.entity().ifPresent(entityTag -> {
+            this.entity = entityTag.copy();
+            loadEquipment(entity, "ArmorItems", armorItems, pRegistries);
+            loadEquipment(entity, "HandItems", handItems, pRegistries);
+        });
+        TrophyEntityKey previousKey = entityKey;
+        updateEntityKey();
+        moveCachedEntity(previousKey);
+
+        this.scale = data.scale().orElseGet(() -> TrophyManagerConfig.GENERAL.defaultScale.get().floatValue());
+        this.rotX = data.rotX().orElse(0.0f);
+        this.offsetY = data.offsetY().orElseGet(() -> TrophyManagerConfig.GENERAL.defaultYOffset.get());
+        this.baseBlock = data.baseBlock().orElseGet(() -> ResourceLocation.parse(TrophyManagerConfig.GENERAL.defaultBaseBlock.get()));
+        this.resolvedBaseBlock = null;
+        data.name().ifPresent(trophyName -> this.name = trophyName);
+
+        updateDisplayData();
+    }
 
-        if (tag.contains("Scale")) {
-            this.scale = tag.getFloat("Scale");
-        } else {
-            this.scale = TrophyManagerConfig.GENERAL.defaultScale.get().floatValue();
+    /**
+     * The trophy as carried by trophy items
+     */
+    public TrophyData getTrophyData() {
+        return new TrophyData(trophyType, item != null ? item : ItemStack.EMPTY, Optional.ofNullable(entity), Optional.of(offsetY), Optional.of(rotX), Optional.of(scale), Optional.ofNullable(baseBlock), name.isEmpty() ? Optional.empty() : Optional.of(name));
+    }
+
+    @Override
+    protected void applyImplicitComponents(DataComponentInput componentInput) {
+        super.applyImplicitComponents(componentInput);
+        // Old trophy items that were never in an inventory since loading can still carry their trophy as custom data.
+        // Reading it also keeps it from being carried over to the drop.
+        TrophyData data = componentInput.get(ModDataComponents.TROPHY_DATA.get());
+        if (data == null && level != null) {
+            data = TrophyData.fromCustomData(componentInput.get(DataComponents.CUSTOM_DATA), level.registryAccess());
+        }
+        if (data != null && level != null) {
+            loadData(data, level.registryAccess());
         }
+    }
 
-        if (tag.contains("RotX")) {
-            this.rotX = tag.getFloat("RotX");
-        } else {
-            this.rotX = 0.0f;
+    @Override
+    protected void collectImplicitComponents(DataComponentMap.Builder components) {
+        super.collectImplicitComponents(components);
+        components.set(ModDataComponents.TROPHY_DATA.get(), getTrophyData());
+    }
+
+    @Override
+    public void removeComponentsFromTag(CompoundTag tag) {
+        super.removeComponentsFromTag(tag);
+        tag.remove("TrophyData");
+    }
+
+    @Override
+    public void onLoad() {
+        super.onLoad();
+        isPlaced = true;
+        if (level != null && level.isClientSide() && clientPlacementListener != null) {
+            clientPlacementListener.add(level, worldPosition);
         }
+        renderState = null;
+        prewarmCachedEntity();
+    }
 
-        if (tag.contains("OffsetY")) {
-            this.offsetY = tag.getDouble("OffsetY");
-        } else {
-            this.offsetY = TrophyManagerConfig.GENERAL.defaultYOffset.get();
+    @Override
+    public void onChunkUnloaded() {
+        super.onChunkUnloaded();
+        removePlaced();
+        renderState = null;
+        releaseCachedEntity();
+    }
+
+    @Override
+    public void setRemoved() {
+        super.setRemoved();
+        removePlaced();
+        renderState = null;
+        releaseCachedEntity();
+    }
+
+    private void removePlaced() {
+        if (isPlaced && level != null && level.isClientSide() && clientPlacementListener != null) {
+            clientPlacementListener.remove(level, worldPosition);
         }
+        isPlaced = false;
+    }
 
-        if (tag.contains("BaseBlock")) {
-            this.baseBlock = ResourceLocation.parse(tag.getString("BaseBlock"));
-        } else {
-            this.baseBlock = ResourceLocation.parse(TrophyManagerConfig.GENERAL.defaultBaseBlock.get());
+    public boolean isPlaced() {
+        return isPlaced;
+    }
+
+    public boolean isEntityOverLimit() {
+        return isEntityOverLimit;
+    }
+
+    /**
+     * Number of passengers stacked on the trophy entity
+     */
+    public int getPassengerCount() {
+        return passengerCount;
+    }
+
+    @Nullable
+    public TrophyEntityKey getEntityKey() {
+        return entityKey;
+    }
+
+    private void updateEntityKey() {
+        isEntityOverLimit = entity != null && !isWithinLimits(entity);
+        entityKey = entity != null && !isEntityOverLimit ? TrophyEntityKey.of(entity) : null;
+        passengerCount = entityKey != null ? countPassengers(entity, 0, Integer.MAX_VALUE, Integer.MAX_VALUE) : 0;
+        entityType = entity != null ? EntityType.byString(entity.getString("entityType")).orElse(null) : null;
+        renderState = null;
+    }
+
+    /**
+     * Entity type metadata for server side checks, this never builds the display entity
+     */
+    @Nullable
+    public TrophyEntityTypeInfo getEntityTypeInfo() {
+        return entityType != null && level != null ? TrophyEntityTypeInfo.get(entityType, level) : null;
+    }
+
+    private void holdCachedEntity(TrophyEntityCache cache, TrophyEntityKey key) {
+        if (isPlaced && (!key.equals(heldEntityKey) || cache != heldEntityCache)) {
+            releaseCachedEntity();
+            cache.acquire(key);
+            heldEntityKey = key;
+            heldEntityCache = cache;
         }
+    }
 
-        if (tag.contains("Name")) {
-            this.name = tag.getString("Name");
+    private void releaseCachedEntity() {
+        if (heldEntityKey != null && heldEntityCache != null) {
+            heldEntityCache.release(heldEntityKey);
         }
+        heldEntityKey = null;
+        heldEntityCache = null;
     }
 
+    /**
+     * Returns the entity displayed on the trophy. On the client the entity is built by {@link TrophyEntityBuildQueue}
+     * and this returns null until it is ready.
+     */
     public Entity getCachedEntity() {
-        if (entity != null) {
-            int key = entity.hashCode();
-            if (!cachedEntities.containsKey(key)) {
-                Entity cachedEntity = createEntity(level, entity);
-                if (cachedEntity != null) {
-                    if (cachedEntity instanceof NeutralMob && entity.contains("AngerTime")) {
-                        ((NeutralMob) cachedEntity).setRemainingPersistentAngerTime(entity.getInt("AngerTime"));
-//                    } else if (cachedEntity instanceof Shulker && entity.contains("Peek")) {
-//                        ((Shulker) cachedEntity).setRawPeekAmount(entity.getInt("Peek"));
-                    }
-                    try {
-                        addPassengers(cachedEntity, entity);
-                    } catch (Exception e) {
-                        // user can fuck it up here, so don't crash
-                    }
-                } else {
-                    TrophyManager.LOGGER.info("Unable to create trophy entity " + entity);
+        if (entityKey != null && level != null) {
+            TrophyEntityKey key = entityKey;
+            TrophyEntityCache cache = TrophyEntityCache.forLevel(level);
+            holdCachedEntity(cache, key);
+            Entity cachedEntity = cache.get(key);
+            if (cachedEntity == null && !cache.contains(key)) {
+                if (level.isClientSide()) {
+                    TrophyEntityBuildQueue.INSTANCE.request(level, key);
+                    return null;
                 }
-                try {
-                    addPassengers(cachedEntity, entity);
-                } catch (Exception e) {
-                    // user can fuck it up here, so don't crash
-                }
-                TrophyBlockEntity.cachedEntities.put(key, cachedEntity);
+                cachedEntity = buildEntity(level, key);
+                cache.put(key, cachedEntity);
             }
-            return cachedEntities.getOrDefault(key, null);
+            return cachedEntity;
         }
         return null;
     }
 
+    /**
+     * Queue the entity for building as soon as trophy data arrives on the client so it's ready by the time it's rendered
+     */
+    private void prewarmCachedEntity() {
+        if (entityKey != null && level != null && level.isClientSide()) {
+            TrophyEntityCache cache = TrophyEntityCache.forLevel(level);
+            holdCachedEntity(cache, entityKey);
+            if (!cache.contains(entityKey)) {
+                TrophyEntityBuildQueue.INSTANCE.request(level, entityKey);
+            }
+        }
+    }
+
+    @Nullable
+    public static Entity buildEntity(Level level, TrophyEntityKey key) {
+        long start = System.nanoTime();
+        CompoundTag tag = key.tag();
+        if (!isWithinLimits(tag)) {
+            return null;
+        }
+        Entity cachedEntity = createEntity(TrophyDisplayLevel.forLevel(level), tag);
+        if (cachedEntity != null) {
+            if (cachedEntity instanceof NeutralMob && tag.contains("AngerTime")) {
+                ((NeutralMob) cachedEntity).setRemainingPersistentAngerTime(tag.getInt("AngerTime"));
+//            } else if (cachedEntity instanceof Shulker && tag.contains("Peek")) {
+//                ((Shulker) cachedEntity).setRawPeekAmount(tag.getInt("Peek"));
+            }
+            try {
+                addPassengers(cachedEntity, tag, 0);
+            } catch (Exception e) {
+                // user can fuck it up here, so don't crash
+            }
+        } else {
+            TrophyManager.LOGGER.info("Unable to create trophy entity " + tag);
+        }
+        TrophyEntityCache.forLevel(level).recordBuild(System.nanoTime() - start);
+        return cachedEntity;
+    }
+
     private static Entity createEntity(Level level, CompoundTag tag) {
         return createEntity(level, tag.getString("entityType"), tag);
     }
@@ -181,7 +411,11 @@ public class TrophyBlockEntity extends BlockEntity
             try {
                 Entity loadedEntity = type.create(level);
                 if (loadedEntity != null) {
-                    loadedEntity.load(tag);
+                    loadedEntity.load(getDisplayTag(tag));
+                    loadedEntity.setSilent(true);
+                    if (loadedEntity instanceof Mob mob) {
+                        mob.setNoAi(true);
+                    }
                     return loadedEntity;
                 }
             } catch (Exception e) {
@@ -194,22 +428,137 @@ public class TrophyBlockEntity extends BlockEntity
         return null;
     }
 
-    private static void addPassengers(Entity vehicle, CompoundTag entityTag) {
-        if (entityTag.contains("Passengers")) {
+    /**
+     * Trophy entities are only ever rendered. Goal selectors are already skipped for entities created in a client side level,
+     * this drops the saved state that would otherwise rebuild brains, attribute modifiers, trades and inventories.
+     */
+    private static CompoundTag getDisplayTag(CompoundTag tag) {
+        CompoundTag displayTag = null;
+        for (String key : NON_DISPLAY_KEYS) {
+            if (tag.contains(key)) {
+                if (displayTag == null) {
+                    displayTag = tag.copy();
+                }
+                displayTag.remove(key);
+            }
+        }
+        return displayTag != null ? displayTag : tag;
+    }
+
+    private static void addPassengers(Entity vehicle, CompoundTag entityTag, int depth) {
+        if (entityTag.contains("Passengers") && depth < TrophyManagerConfig.LIMITS.maxPassengerDepth.get()) {
             ListTag passengers = entityTag.getList("Passengers", 10);
             for (int l = 0; l < passengers.size(); ++l) {
                 CompoundTag riderTag = passengers.getCompound(l);
                 Entity rider = createEntity(vehicle.level(), riderTag.getString("id"), riderTag);
                 if (rider != null) {
                     rider.startRiding(vehicle);
-                    addPassengers(rider, riderTag);
+                    addPassengers(rider, riderTag, depth + 1);
                 }
             }
         }
     }
 
+    /**
+     * Checks entity data against the configured size and passenger limits. Trophies over the limits show a placeholder.
+     */
+    public static boolean isWithinLimits(CompoundTag entityTag) {
+        int maxPassengers = TrophyManagerConfig.LIMITS.maxPassengers.get();
+        return entityTag.sizeInBytes() <= TrophyManagerConfig.LIMITS.maxEntityBytes.get() && countPassengers(entityTag, 0, TrophyManagerConfig.LIMITS.maxPassengerDepth.get(), maxPassengers) <= maxPassengers;
+    }
+
+    /**
+     * Counts all passengers stacked on an entity, stops counting once it's over the limit
+     */
+    private static int countPassengers(CompoundTag entityTag, int depth, int maxDepth, int maxPassengers) {
+        ListTag passengers = entityTag.getList("Passengers", Tag.TAG_COMPOUND);
+        if (passengers.isEmpty()) {
+            return 0;
+        }
+        if (depth >= maxDepth) {
+            return maxPassengers + 1;
+        }
+        int count = 0;
+        for (int i = 0; i < passengers.size() && count <= maxPassengers; ++i) {
+            count += 1 + countPassengers(passengers.getCompound(i), depth + 1, maxDepth, maxPassengers);
+        }
+        return count;
+    }
+
     public Block getBaseBlock() {
-        return BuiltInRegistries.BLOCK.get(baseBlock);
+        if (resolvedBaseBlock == null) {
+            resolvedBaseBlock = BuiltInRegistries.BLOCK.get(baseBlock);
+        }
+        return resolvedBaseBlock;
+    }
+
+    public void setBaseBlock(ResourceLocation baseBlock) {
+        this.baseBlock = baseBlock;
+        this.resolvedBaseBlock = null;
+        updateDisplayData();
+    }
+
+    /**
+     * The item shown on an item trophy that doesn't rotate, it never changes between frames
+     */
+    @Nullable
+    public StaticItem getStaticItem() {
+        if (trophyType.equals("item") && item != null && !item.isEmpty() && !TrophyManagerConfig.GENERAL.rotateItemTrophies.get()) {
+            return new StaticItem(item, offsetY, scale);
+        }
+        return null;
+    }
+
+    @Override
+    public @NotNull ModelData getModelData() {
+        ModelData.Builder builder = ModelData.builder().with(BASE_STATE, getBaseBlock().defaultBlockState());
+        StaticItem staticItem = getStaticItem();
+        if (staticItem != null) {
+            builder.with(STATIC_ITEM, staticItem);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Client only state the trophy is drawn from, dropped whenever its data changes
+     */
+    @Nullable
+    public Object getClientRenderState() {
+        return renderState;
+    }
+
+    public void setClientRenderState(@Nullable Object renderState) {
+        this.renderState = renderState;
+    }
+
+    public static void setClientPlacementListener(@Nullable PlacementListener listener) {
+        clientPlacementListener = listener;
+    }
+
+    @Override
+    public void setBlockState(BlockState state) {
+        super.setBlockState(state);
+        renderState = null;
+    }
+
+    /**
+     * Drops the render state and re-meshes the trophy on the client when its base block or static item changed.
+     * Must be called after changing anything the trophy is drawn from. Trophies that aren't placed in the level, like
+     * the ones decoded for item rendering, have nothing to re-mesh.
+     */
+    public void updateDisplayData() {
+        renderState = null;
+        BlockState baseState = getBaseBlock().defaultBlockState();
+        StaticItem staticItem = getStaticItem();
+        if (baseState == modelBaseState && Objects.equals(staticItem, modelStaticItem)) {
+            return;
+        }
+        modelBaseState = baseState;
+        modelStaticItem = staticItem;
+        if (level != null && level.isClientSide() && !isRemoved() && level.getBlockEntity(worldPosition) == this) {
+            requestModelDataUpdate();
+            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), Block.UPDATE_IMMEDIATE);
+        }
     }
 
     @Nullable
@@ -223,45 +572,32 @@ public class TrophyBlockEntity extends BlockEntity
         handleUpdateTag(pkt.getTag(), lookupProvider);
     }
 
+    @Override
+    public void handleUpdateTag(CompoundTag tag, HolderLookup.Provider lookupProvider) {
+        super.handleUpdateTag(tag, lookupProvider);
+        prewarmCachedEntity();
+    }
+
     @Override
     public @NotNull CompoundTag getUpdateTag(HolderLookup.Provider lookupProvider) {
         return saveWithoutMetadata(lookupProvider);
     }
 
     public ItemInteractionResult equipArmor(ItemStack heldItem) {
-        if (!canEquip(getCachedEntity()) || level == null) {
+        if (!canEquip() || level == null) {
             return ItemInteractionResult.PASS_TO_DEFAULT_BLOCK_INTERACTION;
         }
 
-        // Read existing armor items into list
-        ListTag armorList = entity.contains("ArmorItems") ? entity.getList("ArmorItems", 10) : new ListTag();
-        NonNullList<ItemStack> armorItems = NonNullList.withSize(4, ItemStack.EMPTY);
-        for(int l = 0; l < armorItems.size(); ++l) {
-            armorItems.set(l, ItemStack.parse(level.registryAccess(), armorList.getCompound(l)).orElse(ItemStack.EMPTY));
-        }
         // Add or remove new armor item
-        Item armorItem = heldItem.getItem();
-        if (armorItem instanceof ArmorItem) {
-            int slot = ((ArmorItem) armorItem).getEquipmentSlot().getIndex();
-            if (armorItems.get(slot).getItem().equals(armorItem)) {
-                armorItems.set(slot, ItemStack.EMPTY);
-            } else {
-                armorItems.set(slot, heldItem);
-            }
-        }
-
-        // Save armor list in NBT
-        ListTag listnbt = new ListTag();
-        CompoundTag compoundnbt;
-        for(Iterator<ItemStack> var3 = armorItems.iterator(); var3.hasNext(); listnbt.add(compoundnbt)) {
-            ItemStack itemstack = var3.next();
-            compoundnbt = new CompoundTag();
-            if (!itemstack.isEmpty()) {
-                itemstack.save(level.registryAccess(), compoundnbt);
-            }
+        if (heldItem.getItem() instanceof ArmorItem armorItem) {
+            int slot = armorItem.getEquipmentSlot().getIndex();
+            armorItems.set(slot, armorItems.get(slot).is(armorItem) ? ItemStack.EMPTY : heldItem.copyWithCount(1));
         }
 
-        entity.put("ArmorItems", listnbt);
+        TrophyEntityKey previousKey = entityKey;
+        entity.put("ArmorItems", saveEquipment(armorItems, level.registryAccess()));
+        updateEntityKey();
+        moveCachedEntity(previousKey);
 
         if (level instanceof ServerLevel) {
             level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), 3);
@@ -271,45 +607,110 @@ public class TrophyBlockEntity extends BlockEntity
     }
 
     public ItemInteractionResult equipTool(ItemStack heldItem) {
-        if (!canEquip(getCachedEntity()) || level == null) {
+        if (!canEquip() || level == null) {
             return ItemInteractionResult.PASS_TO_DEFAULT_BLOCK_INTERACTION;
         }
 
-        // Read existing armor items into list
-        ListTag handList = entity.contains("HandItems") ? entity.getList("HandItems", 10) : new ListTag();
-        NonNullList<ItemStack> handItems = NonNullList.withSize(2, ItemStack.EMPTY);
-        for(int l = 0; l < handItems.size(); ++l) {
-            handItems.set(l, ItemStack.parse(level.registryAccess(), handList.getCompound(l)).orElse(ItemStack.EMPTY));
-        }
         // Add or remove equipment
         int slot = heldItem.getItem() instanceof ShieldItem ? 1 : 0;
-        if (handItems.get(slot).getItem().equals(heldItem.getItem())) {
-            handItems.set(slot, ItemStack.EMPTY);
-        } else {
-            handItems.set(slot, heldItem);
+        handItems.set(slot, handItems.get(slot).is(heldItem.getItem()) ? ItemStack.EMPTY : heldItem.copyWithCount(1));
+
+        TrophyEntityKey previousKey = entityKey;
+        entity.put("HandItems", saveEquipment(handItems, level.registryAccess()));
+        updateEntityKey();
+        moveCachedEntity(previousKey);
+
+        if (level instanceof ServerLevel) {
+            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), 3);
+        }
+
+        return ItemInteractionResult.CONSUME;
+    }
+
+    /**
+     * Equipment changes are applied to the existing cached entity instead of building a new one, as long as no other
+     * trophy is displaying the same entity.
+     */
+    private void moveCachedEntity(@Nullable TrophyEntityKey previousKey) {
+        if (level == null || previousKey == null || entityKey == null || previousKey.equals(entityKey) || !isSameEntityIgnoringEquipment(previousKey.tag(), entityKey.tag())) {
+            return;
         }
+        TrophyEntityCache cache = TrophyEntityCache.forLevel(level);
+        boolean isHeld = previousKey.equals(heldEntityKey) && cache == heldEntityCache;
+        if (cache.move(previousKey, entityKey, isHeld, this::applyEquipment) && isHeld) {
+            heldEntityKey = entityKey;
+        }
+    }
 
-        // Save list in NBT
-        ListTag listnbt = new ListTag();
-        CompoundTag compoundnbt;
-        for(Iterator<ItemStack> var3 = handItems.iterator(); var3.hasNext(); listnbt.add(compoundnbt)) {
-            ItemStack itemstack = var3.next();
-            compoundnbt = new CompoundTag();
-            if (!itemstack.isEmpty()) {
-                itemstack.save(level.registryAccess(), compoundnbt);
+    private void applyEquipment(Entity cachedEntity) {
+        if (cachedEntity instanceof LivingEntity livingEntity) {
+            for (EquipmentSlot slot : EquipmentSlot.values()) {
+                if (slot.getType() == EquipmentSlot.Type.HUMANOID_ARMOR) {
+                    livingEntity.setItemSlot(slot, armorItems.get(slot.getIndex()).copy());
+                } else if (slot.getType() == EquipmentSlot.Type.HAND) {
+                    livingEntity.setItemSlot(slot, handItems.get(slot.getIndex()).copy());
+                }
             }
         }
+    }
 
-        entity.put("HandItems", listnbt);
+    private static boolean isSameEntityIgnoringEquipment(CompoundTag tag, CompoundTag otherTag) {
+        CompoundTag strippedTag = tag.copy();
+        CompoundTag strippedOtherTag = otherTag.copy();
+        for (String key : new String[]{"ArmorItems", "HandItems"}) {
+            strippedTag.remove(key);
+            strippedOtherTag.remove(key);
+        }
+        return strippedTag.equals(strippedOtherTag);
+    }
 
-        if (level instanceof ServerLevel) {
-            level.sendBlockUpdated(worldPosition, getBlockState(), getBlockState(), 3);
+    private static void loadEquipment(CompoundTag entityTag, String key, NonNullList<ItemStack> items, HolderLookup.Provider registries) {
+        ListTag list = entityTag.getList(key, Tag.TAG_COMPOUND);
+        for (int i = 0; i < items.size(); ++i) {
+            items.set(i, i < list.size() ? ItemStack.parseOptional(registries, list.getCompound(i)) : ItemStack.EMPTY);
         }
+    }
 
-        return ItemInteractionResult.CONSUME;
+    private static ListTag saveEquipment(NonNullList<ItemStack> items, HolderLookup.Provider registries) {
+        ListTag list = new ListTag();
+        for (ItemStack stack : items) {
+            list.add(stack.saveOptional(registries));
+        }
+        return list;
+    }
+
+    private boolean canEquip() {
+        TrophyEntityTypeInfo info = getEntityTypeInfo();
+        return info != null && info.canEquip();
+    }
+
+    /**
+     * Receives trophies as they are loaded into and removed from the client level, from any thread
+     */
+    public interface PlacementListener
+    {
+        void add(Level level, BlockPos pos);
+
+        void remove(Level level, BlockPos pos);
+    }
+
+    public record StaticItem(ItemStack item, double offsetY, float scale)
+    {
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof StaticItem other && ItemStack.matches(item, other.item) && offsetY == other.offsetY && scale == other.scale;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(ItemStack.hashItemAndComponents(item), offsetY, scale);
+        }
     }
 
-    private boolean canEquip(Entity cachedEntity) {
-        return cachedEntity instanceof Mob || cachedEntity instanceof ArmorStand;
+    private record RenderBounds(AABB bounds, @Nullable TrophyEntityKey entityKey, float scale, double offsetY, float rotX)
+    {
+        private boolean isFor(TrophyBlockEntity trophy) {
+            return entityKey == trophy.entityKey && scale == trophy.scale && offsetY == trophy.offsetY && rotX == trophy.rotX;
+        }
     }
 }
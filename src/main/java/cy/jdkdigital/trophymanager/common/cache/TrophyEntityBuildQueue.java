@@ -0,0 +1,66 @@
+package cy.jdkdigital.trophymanager.common.cache;
+
+import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import cy.jdkdigital.trophymanager.common.level.TrophyDisplayLevel;
+import net.minecraft.world.level.Level;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Builds client side trophy entities outside the renderer.
+ * Entity constructors are not safe to run off the client thread, so instead of building on first render the queue is
+ * drained at the start of each frame until the configured time budget is spent. Requests can come from any thread.
+ * Requests for a display level that was replaced are dropped, see {@link TrophyDisplayLevel#isReplaced()}.
+ */
+public class TrophyEntityBuildQueue
+{
+    public static final TrophyEntityBuildQueue INSTANCE = new TrophyEntityBuildQueue();
+
+    private final Queue<Request> pending = new ConcurrentLinkedQueue<>();
+    private final Set<Request> queued = ConcurrentHashMap.newKeySet();
+
+    public void request(Level level, TrophyEntityKey key) {
+        Request request = new Request(TrophyDisplayLevel.forLevel(level), key);
+        if (queued.add(request)) {
+            pending.add(request);
+        }
+    }
+
+    public void process(long budgetNanos) {
+        long start = System.nanoTime();
+        Request request;
+        // Always build at least one entity per frame so the queue drains even on slow machines
+        while ((request = pending.poll()) != null) {
+            queued.remove(request);
+            if (request.level().isReplaced()) {
+                continue;
+            }
+            TrophyEntityCache cache = TrophyEntityCache.forLevel(request.level());
+            if (!cache.contains(request.key())) {
+                cache.put(request.key(), TrophyBlockEntity.buildEntity(request.level(), request.key()));
+            }
+            if (System.nanoTime() - start > budgetNanos) {
+                break;
+            }
+        }
+    }
+
+    public void removeLevel(TrophyDisplayLevel level) {
+        pending.removeIf(request -> request.level() == level);
+        queued.removeIf(request -> request.level() == level);
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    public void clear() {
+        pending.clear();
+        queued.clear();
+    }
+
+    private record Request(TrophyDisplayLevel level, TrophyEntityKey key) {}
+}
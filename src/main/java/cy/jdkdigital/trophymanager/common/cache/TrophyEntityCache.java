@@ -0,0 +1,244 @@
+package cy.jdkdigital.trophymanager.common.cache;
+
+import cy.jdkdigital.trophymanager.TrophyManager;
+import cy.jdkdigital.trophymanager.TrophyManagerConfig;
+import cy.jdkdigital.trophymanager.common.level.TrophyDisplayLevel;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.level.Level;
+
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * Bounded LRU cache for the entities displayed on trophies.
+ * Entries no placed trophy holds are dropped when the entry or memory budget is exceeded, held entries are dropped when
+ * the last placed trophy holding them is removed or when the world is left.
+ * Each {@link TrophyDisplayLevel} owns a cache, so entities are never shared between the client and the integrated
+ * server but are kept across dimension changes. Caches can be used from any thread.
+ */
+public class TrophyEntityCache
+{
+    // Rough retained size of a constructed entity, not counting the NBT it was loaded from
+    private static final long ENTITY_OVERHEAD_BYTES = 16 * 1024;
+
+    private final Map<TrophyEntityKey, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<TrophyEntityKey, Integer> holders = new ConcurrentHashMap<>();
+    private final AtomicLong totalBytes = new AtomicLong();
+    private final AtomicLong clock = new AtomicLong();
+    private volatile boolean isHeldOverBudget = false;
+
+    // Statistics for the debug overlay
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder builds = new LongAdder();
+    private final LongAdder buildNanos = new LongAdder();
+
+    public static TrophyEntityCache forLevel(Level level) {
+        return TrophyDisplayLevel.forLevel(level).getEntityCache();
+    }
+
+    public boolean contains(TrophyEntityKey key) {
+        return entries.containsKey(key);
+    }
+
+    /**
+     * Looks up a cached entity, counting the lookup as a hit or miss
+     */
+    @Nullable
+    public Entity get(TrophyEntityKey key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            hits.increment();
+            entry.lastAccess = clock.incrementAndGet();
+            return entry.entity;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(TrophyEntityKey key, @Nullable Entity entity) {
+        Entry entry = new Entry(entity, estimateSize(entity, key.tag()), clock.incrementAndGet());
+        Entry previous = entries.put(key, entry);
+        if (previous != null) {
+            totalBytes.addAndGet(-previous.size);
+        }
+        totalBytes.addAndGet(entry.size);
+
+        evict();
+    }
+
+    /**
+     * Marks a placed trophy as using the entity for the key
+     */
+    public void acquire(TrophyEntityKey key) {
+        holders.merge(key, 1, Integer::sum);
+    }
+
+    /**
+     * Releases an entity previously acquired, the entity is dropped when no placed trophy uses it anymore
+     */
+    public synchronized void release(TrophyEntityKey key) {
+        if (holders.containsKey(key) && holders.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null) == null) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Moves a cached entity to a new key, updating it in place. Only done when no other placed trophy holds the entity.
+     *
+     * @param isHeld whether the caller is holding the entity for the old key, its hold is moved to the new key
+     * @return true if the entity was moved
+     */
+    public synchronized boolean move(TrophyEntityKey from, TrophyEntityKey to, boolean isHeld, Consumer<Entity> updater) {
+        int holderCount = holders.getOrDefault(from, 0);
+        if (holderCount != (isHeld ? 1 : 0) || entries.containsKey(to)) {
+            return false;
+        }
+        Entry entry = entries.get(from);
+        if (entry == null || entry.entity == null) {
+            return false;
+        }
+
+        remove(from);
+        if (isHeld) {
+            holders.remove(from);
+            holders.merge(to, 1, Integer::sum);
+        }
+        updater.accept(entry.entity);
+        put(to, entry.entity);
+        return true;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        holders.clear();
+        totalBytes.set(0);
+    }
+
+    public void recordBuild(long nanos) {
+        builds.increment();
+        buildNanos.add(nanos);
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getTotalBytes() {
+        return totalBytes.get();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getBuilds() {
+        return builds.sum();
+    }
+
+    public long getBuildNanos() {
+        return buildNanos.sum();
+    }
+
+    /**
+     * Whether the entities held by placed trophies alone exceed the cache budget
+     */
+    public boolean isHeldOverBudget() {
+        return isHeldOverBudget;
+    }
+
+    public void resetStats() {
+        hits.reset();
+        misses.reset();
+        evictions.reset();
+        builds.reset();
+        buildNanos.reset();
+    }
+
+    private void remove(TrophyEntityKey key) {
+        Entry entry = entries.remove(key);
+        if (entry != null) {
+            totalBytes.addAndGet(-entry.size);
+        }
+    }
+
+    private void evict() {
+        int maxEntries = TrophyManagerConfig.CACHE.maxEntities.get();
+        long maxBytes = TrophyManagerConfig.CACHE.maxMegabytes.get() * 1024L * 1024L;
+        if (entries.size() <= maxEntries && totalBytes.get() <= maxBytes) {
+            isHeldOverBudget = false;
+            return;
+        }
+
+        synchronized (this) {
+            // Drop least recently accessed entries no placed trophy holds first, always keep the newest entry.
+            // Lookups keep stamping entries while sorting, so the stamps are taken up front.
+            List<Candidate> candidates = new ArrayList<>();
+            for (Map.Entry<TrophyEntityKey, Entry> entry : entries.entrySet()) {
+                if (!holders.containsKey(entry.getKey())) {
+                    candidates.add(new Candidate(entry.getKey(), entry.getValue(), entry.getValue().lastAccess));
+                }
+            }
+            candidates.sort(Comparator.comparingLong(Candidate::lastAccess));
+            for (int i = 0; i < candidates.size() - 1 && (entries.size() > maxEntries || totalBytes.get() > maxBytes); i++) {
+                Candidate candidate = candidates.get(i);
+                if (entries.remove(candidate.key(), candidate.entry())) {
+                    totalBytes.addAndGet(-candidate.entry().size);
+                    evictions.increment();
+                }
+            }
+
+            boolean isOverBudget = entries.size() > maxEntries || totalBytes.get() > maxBytes;
+            if (isOverBudget && !isHeldOverBudget) {
+                TrophyManager.LOGGER.warn("Placed trophies hold {} entities ({} MB), more than the trophy entity cache budget of {} entities and {} MB. Consider raising maxEntities or maxMegabytes.", entries.size(), totalBytes.get() / (1024L * 1024L), maxEntries, maxBytes / (1024L * 1024L));
+            }
+            isHeldOverBudget = isOverBudget;
+        }
+    }
+
+    private static long estimateSize(@Nullable Entity entity, CompoundTag tag) {
+        long size = tag.sizeInBytes();
+        if (entity != null) {
+            size += ENTITY_OVERHEAD_BYTES;
+            for (Entity ignored : entity.getIndirectPassengers()) {
+                size += ENTITY_OVERHEAD_BYTES;
+            }
+        }
+        return size;
+    }
+
+    private record Candidate(TrophyEntityKey key, Entry entry, long lastAccess)
+    {
+    }
+
+    private static class Entry
+    {
+        @Nullable
+        private final Entity entity;
+        private final long size;
+        private volatile long lastAccess;
+
+        private Entry(@Nullable Entity entity, long size, long lastAccess) {
+            this.entity = entity;
+            this.size = size;
+            this.lastAccess = lastAccess;
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package cy.jdkdigital.trophymanager.common.cache;
+
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import net.minecraft.nbt.CompoundTag;
+
+/**
+ * Cache key for a trophy entity, resolved once whenever the trophy entity data changes.
+ * Holds its own copy of the entity tag so two keys are only equal when the data is, the hash is only used to bucket.
+ * Keys are interned, so trophies showing the same entity share one key and cache lookups compare references instead
+ * of tags.
+ */
+public final class TrophyEntityKey
+{
+    private static final Interner<TrophyEntityKey> INTERNER = Interners.newWeakInterner();
+
+    private final CompoundTag tag;
+    private final int hash;
+
+    private TrophyEntityKey(CompoundTag tag) {
+        this.tag = tag;
+        this.hash = tag.hashCode();
+    }
+
+    public static TrophyEntityKey of(CompoundTag tag) {
+        return INTERNER.intern(new TrophyEntityKey(tag.copy()));
+    }
+
+    public CompoundTag tag() {
+        return tag;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof TrophyEntityKey other && hash == other.hash && tag.equals(other.tag);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
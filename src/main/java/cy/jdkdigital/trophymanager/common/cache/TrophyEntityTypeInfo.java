@@ -0,0 +1,47 @@
+package cy.jdkdigital.trophymanager.common.cache;
+
+import cy.jdkdigital.trophymanager.TrophyManager;
+import cy.jdkdigital.trophymanager.common.entity.RenderPlayer;
+import cy.jdkdigital.trophymanager.common.level.TrophyDisplayLevel;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.EntityType;
+import net.minecraft.world.entity.Mob;
+import net.minecraft.world.entity.decoration.ArmorStand;
+import net.minecraft.world.level.Level;
+
+import javax.annotation.Nullable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * What trophies need to know about an entity type without building a display entity for every trophy.
+ * Resolved once per type from a throwaway entity and forgotten when registries or tags reload. The ambient sound is
+ * the one of a default entity of the type, so sounds that depend on the state of the trophy entity aren't picked up.
+ */
+public record TrophyEntityTypeInfo(boolean isMob, boolean canEquip, @Nullable SoundEvent ambientSound)
+{
+    private static final TrophyEntityTypeInfo UNKNOWN = new TrophyEntityTypeInfo(false, false, null);
+    private static final Map<EntityType<?>, TrophyEntityTypeInfo> infos = new ConcurrentHashMap<>();
+
+    public static TrophyEntityTypeInfo get(EntityType<?> type, Level level) {
+        return infos.computeIfAbsent(type, t -> resolve(t, level));
+    }
+
+    public static void clear() {
+        infos.clear();
+    }
+
+    private static TrophyEntityTypeInfo resolve(EntityType<?> type, Level level) {
+        try {
+            Entity entity = type.create(TrophyDisplayLevel.forLevel(level));
+            if (entity != null) {
+                boolean isMob = entity instanceof Mob;
+                return new TrophyEntityTypeInfo(isMob, isMob || entity instanceof ArmorStand || entity instanceof RenderPlayer, entity instanceof Mob mob ? mob.getAmbientSound() : null);
+            }
+        } catch (Exception e) {
+            TrophyManager.LOGGER.warn("Unable to inspect trophy entity type " + EntityType.getKey(type) + ": " + e.getMessage());
+        }
+        return UNKNOWN;
+    }
+}
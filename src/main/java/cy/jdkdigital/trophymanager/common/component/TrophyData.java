@@ -0,0 +1,257 @@
+package cy.jdkdigital.trophymanager.common.component;
+
+import com.mojang.serialization.Codec;
+import com.mojang.serialization.codecs.RecordCodecBuilder;
+import cy.jdkdigital.trophymanager.init.ModDataComponents;
+import io.netty.buffer.ByteBuf;
+import net.minecraft.core.HolderLookup;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.component.DataComponents;
+import net.minecraft.core.registries.BuiltInRegistries;
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtOps;
+import net.minecraft.network.RegistryFriendlyByteBuf;
+import net.minecraft.network.codec.ByteBufCodecs;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.world.item.ItemStack;
+import net.minecraft.world.item.component.CustomData;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Trophy carried by an item, see {@link ModDataComponents#TROPHY_DATA}. Settings that are left out use the config
+ * defaults when the trophy is placed. The item and entity data are copied in once, they are shared read only after
+ * that, and the hash is computed up front since trophy data is used as a cache key.
+ */
+public final class TrophyData
+{
+    public static final Codec<TrophyData> CODEC = RecordCodecBuilder.create(instance -> instance.group(
+            Codec.STRING.optionalFieldOf("type", "item").forGetter(TrophyData::type),
+            ItemStack.OPTIONAL_CODEC.optionalFieldOf("item", ItemStack.EMPTY).forGetter(TrophyData::item),
+            CompoundTag.CODEC.optionalFieldOf("entity").forGetter(TrophyData::entity),
+            Codec.DOUBLE.optionalFieldOf("offset_y").forGetter(TrophyData::offsetY),
+            Codec.FLOAT.optionalFieldOf("rot_x").forGetter(TrophyData::rotX),
+            Codec.FLOAT.optionalFieldOf("scale").forGetter(TrophyData::scale),
+            ResourceLocation.CODEC.optionalFieldOf("base_block").forGetter(TrophyData::baseBlock),
+            Codec.STRING.optionalFieldOf("name").forGetter(TrophyData::name)
+    ).apply(instance, TrophyData::new));
+
+    public static final StreamCodec<RegistryFriendlyByteBuf, TrophyData> STREAM_CODEC = StreamCodec.of(TrophyData::encode, TrophyData::decode);
+
+    private static final StreamCodec<ByteBuf, Optional<CompoundTag>> OPTIONAL_TAG_STREAM_CODEC = ByteBufCodecs.optional(ByteBufCodecs.COMPOUND_TAG);
+    private static final StreamCodec<ByteBuf, Optional<Double>> OPTIONAL_DOUBLE_STREAM_CODEC = ByteBufCodecs.optional(ByteBufCodecs.DOUBLE);
+    private static final StreamCodec<ByteBuf, Optional<Float>> OPTIONAL_FLOAT_STREAM_CODEC = ByteBufCodecs.optional(ByteBufCodecs.FLOAT);
+    private static final StreamCodec<ByteBuf, Optional<ResourceLocation>> OPTIONAL_LOCATION_STREAM_CODEC = ByteBufCodecs.optional(ResourceLocation.STREAM_CODEC);
+    private static final StreamCodec<ByteBuf, Optional<String>> OPTIONAL_STRING_STREAM_CODEC = ByteBufCodecs.optional(ByteBufCodecs.STRING_UTF8);
+
+    private static final String[] LEGACY_KEYS = {"TrophyType", "TrophyItem", "TrophyEntity", "OffsetY", "RotX", "Scale", "BaseBlock", "Name"};
+    // Enough to read any item that carries no data from datapack registries, like enchantments
+    private static final HolderLookup.Provider BUILT_IN_REGISTRIES = RegistryAccess.fromRegistryOfRegistries(BuiltInRegistries.REGISTRY);
+
+    private final String type;
+    private final ItemStack item;
+    private final Optional<CompoundTag> entity;
+    private final Optional<Double> offsetY;
+    private final Optional<Float> rotX;
+    private final Optional<Float> scale;
+    private final Optional<ResourceLocation> baseBlock;
+    private final Optional<String> name;
+    private final int hash;
+
+    public TrophyData(String type, ItemStack item, Optional<CompoundTag> entity, Optional<Double> offsetY, Optional<Float> rotX, Optional<Float> scale, Optional<ResourceLocation> baseBlock, Optional<String> name) {
+        this(type, item, entity, offsetY, rotX, scale, baseBlock, name, true);
+    }
+
+    // Data that is already copied or freshly decoded is taken as is
+    private TrophyData(String type, ItemStack item, Optional<CompoundTag> entity, Optional<Double> offsetY, Optional<Float> rotX, Optional<Float> scale, Optional<ResourceLocation> baseBlock, Optional<String> name, boolean shouldCopy) {
+        this.type = type;
+        this.item = shouldCopy ? item.copy() : item;
+        this.entity = shouldCopy ? entity.map(CompoundTag::copy) : entity;
+        this.offsetY = offsetY;
+        this.rotX = rotX;
+        this.scale = scale;
+        this.baseBlock = baseBlock;
+        this.name = name;
+        this.hash = Objects.hash(type, ItemStack.hashItemAndComponents(item), entity, offsetY, rotX, scale, baseBlock, name);
+    }
+
+    public static TrophyData ofEntity(CompoundTag entityTag, String name) {
+        return new TrophyData("entity", ItemStack.EMPTY, Optional.of(entityTag), Optional.empty(), Optional.empty(), Optional.empty(), Optional.empty(), Optional.of(name));
+    }
+
+    /**
+     * Moves the trophy of items made before the trophy data component from custom data into the component, as the
+     * stack is loaded. Only the built-in registries can be used there, so trophy items with data from datapack
+     * registries are left for {@link #migrate(ItemStack, HolderLookup.Provider)}.
+     */
+    public static void migrate(ItemStack stack) {
+        migrate(stack, BUILT_IN_REGISTRIES, false);
+    }
+
+    /**
+     * Moves the trophy of items made before the trophy data component from custom data into the component
+     */
+    public static void migrate(ItemStack stack, HolderLookup.Provider registries) {
+        migrate(stack, registries, true);
+    }
+
+    private static void migrate(ItemStack stack, HolderLookup.Provider registries, boolean isFinal) {
+        if (stack.has(ModDataComponents.TROPHY_DATA.get())) {
+            return;
+        }
+        CustomData customData = stack.get(DataComponents.CUSTOM_DATA);
+        if (customData == null || !isLegacy(customData.getUnsafe())) {
+            return;
+        }
+
+        CompoundTag tag = customData.copyTag();
+        ItemStack item = ItemStack.EMPTY;
+        if (tag.contains("TrophyItem")) {
+            Optional<ItemStack> parsedItem = ItemStack.OPTIONAL_CODEC.parse(registries.createSerializationContext(NbtOps.INSTANCE), tag.getCompound("TrophyItem")).result();
+            if (parsedItem.isEmpty() && !isFinal) {
+                return;
+            }
+            item = parsedItem.orElse(ItemStack.EMPTY);
+        }
+        stack.set(ModDataComponents.TROPHY_DATA.get(), fromTag(tag, item));
+        CustomData.update(DataComponents.CUSTOM_DATA, stack, customTag -> {
+            for (String key : LEGACY_KEYS) {
+                customTag.remove(key);
+            }
+        });
+    }
+
+    /**
+     * Reads the trophy of an item made before the trophy data component that was never migrated, or null when the
+     * custom data holds none
+     */
+    @Nullable
+    public static TrophyData fromCustomData(@Nullable CustomData customData, HolderLookup.Provider registries) {
+        return customData != null && isLegacy(customData.getUnsafe()) ? fromTag(customData.copyTag(), registries) : null;
+    }
+
+    private static boolean isLegacy(CompoundTag tag) {
+        return tag.contains("TrophyType") || tag.contains("TrophyItem") || tag.contains("TrophyEntity");
+    }
+
+    /**
+     * Reads the trophy data block entities save, which trophy items also used to carry as custom data
+     */
+    public static TrophyData fromTag(CompoundTag tag, HolderLookup.Provider registries) {
+        ItemStack item = ItemStack.EMPTY;
+        if (tag.contains("TrophyItem")) {
+            CompoundTag itemTag = tag.getCompound("TrophyItem");
+            if (!itemTag.contains("Count")) {
+                itemTag.putDouble("Count", 1D);
+            }
+            item = ItemStack.parse(registries, itemTag).orElse(ItemStack.EMPTY);
+        }
+        return fromTag(tag, item);
+    }
+
+    private static TrophyData fromTag(CompoundTag tag, ItemStack item) {
+        return new TrophyData(
+                tag.contains("TrophyType") ? tag.getString("TrophyType") : "item",
+                item,
+                tag.contains("TrophyEntity") ? Optional.of(tag.getCompound("TrophyEntity")) : Optional.empty(),
+                tag.contains("OffsetY") ? Optional.of(tag.getDouble("OffsetY")) : Optional.empty(),
+                tag.contains("RotX") ? Optional.of(tag.getFloat("RotX")) : Optional.empty(),
+                tag.contains("Scale") ? Optional.of(tag.getFloat("Scale")) : Optional.empty(),
+                tag.contains("BaseBlock") ? Optional.ofNullable(ResourceLocation.tryParse(tag.getString("BaseBlock"))) : Optional.empty(),
+                tag.contains("Name") ? Optional.of(tag.getString("Name")) : Optional.empty()
+        );
+    }
+
+    public TrophyData withOffsetY(double offsetY) {
+        return new TrophyData(type, item, entity, Optional.of(offsetY), rotX, scale, baseBlock, name, false);
+    }
+
+    public TrophyData withRotX(float rotX) {
+        return new TrophyData(type, item, entity, offsetY, Optional.of(rotX), scale, baseBlock, name, false);
+    }
+
+    public TrophyData withScale(float scale) {
+        return new TrophyData(type, item, entity, offsetY, rotX, Optional.of(scale), baseBlock, name, false);
+    }
+
+    public String type() {
+        return type;
+    }
+
+    /**
+     * The item shown on the trophy, read only
+     */
+    public ItemStack item() {
+        return item;
+    }
+
+    /**
+     * The entity data of the trophy, read only
+     */
+    public Optional<CompoundTag> entity() {
+        return entity;
+    }
+
+    public Optional<Double> offsetY() {
+        return offsetY;
+    }
+
+    public Optional<Float> rotX() {
+        return rotX;
+    }
+
+    public Optional<Float> scale() {
+        return scale;
+    }
+
+    public Optional<ResourceLocation> baseBlock() {
+        return baseBlock;
+    }
+
+    public Optional<String> name() {
+        return name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return this == o || o instanceof TrophyData other && hash == other.hash && type.equals(other.type) && ItemStack.matches(item, other.item) && entity.equals(other.entity) && offsetY.equals(other.offsetY) && rotX.equals(other.rotX) && scale.equals(other.scale) && baseBlock.equals(other.baseBlock) && name.equals(other.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "TrophyData[type=" + type + ", item=" + item + ", entity=" + entity + ", offsetY=" + offsetY + ", rotX=" + rotX + ", scale=" + scale + ", baseBlock=" + baseBlock + ", name=" + name + "]";
+    }
+
+    private static void encode(RegistryFriendlyByteBuf buf, TrophyData data) {
+        ByteBufCodecs.STRING_UTF8.encode(buf, data.type);
+        ItemStack.OPTIONAL_STREAM_CODEC.encode(buf, data.item);
+        OPTIONAL_TAG_STREAM_CODEC.encode(buf, data.entity);
+        OPTIONAL_DOUBLE_STREAM_CODEC.encode(buf, data.offsetY);
+        OPTIONAL_FLOAT_STREAM_CODEC.encode(buf, data.rotX);
+        OPTIONAL_FLOAT_STREAM_CODEC.encode(buf, data.scale);
+        OPTIONAL_LOCATION_STREAM_CODEC.encode(buf, data.baseBlock);
+        OPTIONAL_STRING_STREAM_CODEC.encode(buf, data.name);
+    }
+
+    private static TrophyData decode(RegistryFriendlyByteBuf buf) {
+        return new TrophyData(
+                ByteBufCodecs.STRING_UTF8.decode(buf),
+                ItemStack.OPTIONAL_STREAM_CODEC.decode(buf),
+                OPTIONAL_TAG_STREAM_CODEC.decode(buf),
+                OPTIONAL_DOUBLE_STREAM_CODEC.decode(buf),
+                OPTIONAL_FLOAT_STREAM_CODEC.decode(buf),
+                OPTIONAL_FLOAT_STREAM_CODEC.decode(buf),
+                OPTIONAL_LOCATION_STREAM_CODEC.decode(buf),
+                OPTIONAL_STRING_STREAM_CODEC.decode(buf),
+                false
+        );
+    }
+}
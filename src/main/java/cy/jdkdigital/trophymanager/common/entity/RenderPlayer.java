@@ -1,21 +1,46 @@
 package cy.jdkdigital.trophymanager.common.entity;
 
+import net.minecraft.core.NonNullList;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.ListTag;
+import net.minecraft.nbt.Tag;
 import net.minecraft.network.syncher.EntityDataAccessor;
 import net.minecraft.network.syncher.EntityDataSerializers;
 import net.minecraft.network.syncher.SynchedEntityData;
 import net.minecraft.world.entity.EntityType;
-import net.minecraft.world.entity.monster.Zombie;
+import net.minecraft.world.entity.EquipmentSlot;
+import net.minecraft.world.entity.HumanoidArm;
+import net.minecraft.world.entity.LivingEntity;
+import net.minecraft.world.entity.ai.attributes.AttributeSupplier;
+import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.Level;
 
-public class RenderPlayer extends Zombie
+import javax.annotation.Nullable;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Render only entity for player trophies. It has no AI and is never added to a level, it only holds what the renderer
+ * needs: the player uuid and equipment.
+ */
+public class RenderPlayer extends LivingEntity
 {
-    public RenderPlayer(EntityType<? extends Zombie> entityType, Level level) {
+    private final NonNullList<ItemStack> handItems = NonNullList.withSize(2, ItemStack.EMPTY);
+    private final NonNullList<ItemStack> armorItems = NonNullList.withSize(4, ItemStack.EMPTY);
+    // Parsed from the uuid data on first use
+    @Nullable
+    private Optional<UUID> playerId = null;
+
+    public RenderPlayer(EntityType<? extends LivingEntity> entityType, Level level) {
         super(entityType, level);
     }
 
     static final EntityDataAccessor<String> DATA_UUID = SynchedEntityData.defineId(RenderPlayer.class, EntityDataSerializers.STRING);
 
+    public static AttributeSupplier.Builder createAttributes() {
+        return LivingEntity.createLivingAttributes();
+    }
+
     @Override
     protected void defineSynchedData(SynchedEntityData.Builder pBuilder) {
         super.defineSynchedData(pBuilder);
@@ -24,12 +49,56 @@ public class RenderPlayer extends Zombie
 
     public void setUUIDData(String uuid) {
         this.getEntityData().set(DATA_UUID, uuid);
+        this.playerId = null;
     }
 
     public String getUUIDData() {
         return this.getEntityData().get(DATA_UUID);
     }
 
+    public Optional<UUID> getPlayerId() {
+        if (playerId == null) {
+            try {
+                playerId = getUUIDData().isEmpty() ? Optional.empty() : Optional.of(UUID.fromString(getUUIDData()));
+            } catch (IllegalArgumentException e) {
+                playerId = Optional.empty();
+            }
+        }
+        return playerId;
+    }
+
+    @Override
+    public Iterable<ItemStack> getArmorSlots() {
+        return armorItems;
+    }
+
+    @Override
+    public ItemStack getItemBySlot(EquipmentSlot slot) {
+        return switch (slot.getType()) {
+            case HAND -> handItems.get(slot.getIndex());
+            case HUMANOID_ARMOR -> armorItems.get(slot.getIndex());
+            default -> ItemStack.EMPTY;
+        };
+    }
+
+    @Override
+    public void setItemSlot(EquipmentSlot slot, ItemStack stack) {
+        switch (slot.getType()) {
+            case HAND -> handItems.set(slot.getIndex(), stack);
+            case HUMANOID_ARMOR -> armorItems.set(slot.getIndex(), stack);
+        }
+    }
+
+    @Override
+    public HumanoidArm getMainArm() {
+        return HumanoidArm.RIGHT;
+    }
+
+    @Override
+    public boolean isPushable() {
+        return false;
+    }
+
     @Override
     public void readAdditionalSaveData(CompoundTag tag) {
         super.readAdditionalSaveData(tag);
@@ -37,6 +106,8 @@ public class RenderPlayer extends Zombie
         if (tag.contains("uuid")) {
             setUUIDData(tag.getString("uuid"));
         }
+        loadItems(tag.getList("ArmorItems", Tag.TAG_COMPOUND), armorItems);
+        loadItems(tag.getList("HandItems", Tag.TAG_COMPOUND), handItems);
     }
 
     @Override
@@ -45,5 +116,21 @@ public class RenderPlayer extends Zombie
         if (!this.getUUIDData().isEmpty()) {
             tag.putString("uuid", this.getUUIDData());
         }
+        tag.put("ArmorItems", saveItems(armorItems));
+        tag.put("HandItems", saveItems(handItems));
+    }
+
+    private void loadItems(ListTag list, NonNullList<ItemStack> items) {
+        for (int i = 0; i < items.size(); ++i) {
+            items.set(i, i < list.size() ? ItemStack.parseOptional(registryAccess(), list.getCompound(i)) : ItemStack.EMPTY);
+        }
+    }
+
+    private ListTag saveItems(NonNullList<ItemStack> items) {
+        ListTag list = new ListTag();
+        for (ItemStack stack : items) {
+            list.add(stack.saveOptional(registryAccess()));
+        }
+        return list;
     }
 }
@@ -1,14 +1,17 @@
 package cy.jdkdigital.trophymanager.common.item;
 
 import cy.jdkdigital.trophymanager.client.render.item.TrophyItemStackRenderer;
+import cy.jdkdigital.trophymanager.common.component.TrophyData;
+import cy.jdkdigital.trophymanager.init.ModDataComponents;
 import net.minecraft.client.renderer.BlockEntityWithoutLevelRenderer;
-import net.minecraft.core.component.DataComponents;
 import net.minecraft.network.chat.Component;
+import net.minecraft.world.entity.Entity;
 import net.minecraft.world.entity.EquipmentSlot;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.BlockItem;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.item.TooltipFlag;
+import net.minecraft.world.level.Level;
 import net.minecraft.world.level.block.Block;
 import net.neoforged.neoforge.client.extensions.common.IClientItemExtensions;
 import org.jetbrains.annotations.Nullable;
@@ -26,9 +29,9 @@ public class TrophyItem extends BlockItem
     @Nonnull
     @Override
     public Component getName(ItemStack stack) {
-        if (stack.has(DataComponents.CUSTOM_DATA)) {
-            var tag = stack.get(DataComponents.CUSTOM_DATA).getUnsafe();
-            return Component.translatable(tag.getString("Name"));
+        TrophyData data = stack.get(ModDataComponents.TROPHY_DATA.get());
+        if (data != null && data.name().isPresent()) {
+            return Component.translatable(data.name().get());
         }
         return super.getName(stack);
     }
@@ -37,9 +40,27 @@ public class TrophyItem extends BlockItem
     public void appendHoverText(ItemStack pStack, TooltipContext pContext, List<Component> pTooltipComponents, TooltipFlag pTooltipFlag) {
         super.appendHoverText(pStack, pContext, pTooltipComponents, pTooltipFlag);
 
-        if (pStack.has(DataComponents.CUSTOM_DATA)) {
-            var tag = pStack.get(DataComponents.CUSTOM_DATA).getUnsafe();
-            pTooltipComponents.add(Component.translatable("trophymanager.tooltip.trophy.scale", tag.getCompound("TrophyData").getFloat("scale")));
+        TrophyData data = pStack.get(ModDataComponents.TROPHY_DATA.get());
+        if (data != null && data.scale().isPresent()) {
+            pTooltipComponents.add(Component.translatable("trophymanager.tooltip.trophy.scale", data.scale().get()));
+        }
+    }
+
+    @Override
+    public void verifyComponentsAfterLoad(ItemStack stack) {
+        super.verifyComponentsAfterLoad(stack);
+
+        // Trophies from before the trophy data component kept their data in custom data
+        TrophyData.migrate(stack);
+    }
+
+    @Override
+    public void inventoryTick(ItemStack stack, Level level, Entity entity, int slotId, boolean isSelected) {
+        super.inventoryTick(stack, level, entity, slotId, isSelected);
+
+        // Old trophy items with enchantments and such need the level's registries to be read
+        if (!level.isClientSide()) {
+            TrophyData.migrate(stack, level.registryAccess());
         }
     }
 
@@ -0,0 +1,424 @@
+package cy.jdkdigital.trophymanager.common.level;
+
+import cy.jdkdigital.trophymanager.TrophyManager;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityBuildQueue;
+import cy.jdkdigital.trophymanager.common.cache.TrophyEntityCache;
+import net.minecraft.core.BlockPos;
+import net.minecraft.core.Direction;
+import net.minecraft.core.Holder;
+import net.minecraft.core.RegistryAccess;
+import net.minecraft.core.registries.Registries;
+import net.minecraft.resources.ResourceKey;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.sounds.SoundEvent;
+import net.minecraft.sounds.SoundSource;
+import net.minecraft.util.AbortableIterationConsumer;
+import net.minecraft.util.profiling.InactiveProfiler;
+import net.minecraft.world.Difficulty;
+import net.minecraft.world.TickRateManager;
+import net.minecraft.world.entity.Entity;
+import net.minecraft.world.entity.player.Player;
+import net.minecraft.world.flag.FeatureFlagSet;
+import net.minecraft.world.item.alchemy.PotionBrewing;
+import net.minecraft.world.item.crafting.RecipeManager;
+import net.minecraft.world.level.BlockGetter;
+import net.minecraft.world.level.ChunkPos;
+import net.minecraft.world.level.GameRules;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.biome.Biome;
+import net.minecraft.world.level.biome.Biomes;
+import net.minecraft.world.level.block.Block;
+import net.minecraft.world.level.block.state.BlockState;
+import net.minecraft.world.level.chunk.ChunkAccess;
+import net.minecraft.world.level.chunk.ChunkSource;
+import net.minecraft.world.level.chunk.EmptyLevelChunk;
+import net.minecraft.world.level.chunk.LightChunk;
+import net.minecraft.world.level.chunk.status.ChunkStatus;
+import net.minecraft.world.level.dimension.BuiltinDimensionTypes;
+import net.minecraft.world.level.entity.EntityTypeTest;
+import net.minecraft.world.level.entity.LevelEntityGetter;
+import net.minecraft.world.level.gameevent.GameEvent;
+import net.minecraft.world.level.lighting.LevelLightEngine;
+import net.minecraft.world.level.material.Fluid;
+import net.minecraft.world.level.saveddata.maps.MapId;
+import net.minecraft.world.level.saveddata.maps.MapItemSavedData;
+import net.minecraft.world.level.storage.WritableLevelData;
+import net.minecraft.world.phys.AABB;
+import net.minecraft.world.phys.Vec3;
+import net.minecraft.world.scores.Scoreboard;
+import net.minecraft.world.ticks.BlackholeTickAccess;
+import net.minecraft.world.ticks.LevelTickAccess;
+
+import javax.annotation.Nullable;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+/**
+ * Empty level that all trophy entities are created and loaded in, so building them doesn't touch the real level.
+ * Nothing is ever added to it, blocks are always air and sounds, events and block updates are dropped.
+ * There is one display level per side, it outlives dimension changes and is replaced when the registries change,
+ * i.e. when joining another world or server. Entities built in it are kept in its {@link TrophyEntityCache}.
+ */
+public class TrophyDisplayLevel extends Level
+{
+    public static final ResourceKey<Level> DIMENSION = ResourceKey.create(Registries.DIMENSION, ResourceLocation.fromNamespaceAndPath(TrophyManager.MODID, "display"));
+
+    @Nullable
+    private static volatile TrophyDisplayLevel clientLevel = null;
+    @Nullable
+    private static volatile TrophyDisplayLevel serverLevel = null;
+
+    private final TrophyEntityCache entityCache = new TrophyEntityCache();
+    private final FeatureFlagSet enabledFeatures;
+    private final Holder<Biome> biome;
+    private final DisplayChunkSource chunkSource;
+    private final Scoreboard scoreboard = new Scoreboard();
+    private final RecipeManager recipeManager;
+    private final TickRateManager tickRateManager = new TickRateManager();
+    private volatile boolean isReplaced = false;
+
+    private TrophyDisplayLevel(RegistryAccess registryAccess, FeatureFlagSet enabledFeatures, boolean isClientSide) {
+        super(new DisplayLevelData(), DIMENSION, registryAccess, registryAccess.registryOrThrow(Registries.DIMENSION_TYPE).getHolderOrThrow(BuiltinDimensionTypes.OVERWORLD), () -> InactiveProfiler.INSTANCE, isClientSide, false, 0, 0);
+        this.enabledFeatures = enabledFeatures;
+        this.biome = registryAccess.registryOrThrow(Registries.BIOME).getHolderOrThrow(Biomes.PLAINS);
+        this.chunkSource = new DisplayChunkSource(this);
+        this.recipeManager = new RecipeManager(registryAccess);
+    }
+
+    /**
+     * Returns the display level for the side of the given level, creating it if the registries changed
+     */
+    public static TrophyDisplayLevel forLevel(Level level) {
+        if (level instanceof TrophyDisplayLevel displayLevel) {
+            return displayLevel;
+        }
+        TrophyDisplayLevel displayLevel = level.isClientSide() ? clientLevel : serverLevel;
+        if (displayLevel == null || displayLevel.registryAccess() != level.registryAccess()) {
+            synchronized (TrophyDisplayLevel.class) {
+                displayLevel = level.isClientSide() ? clientLevel : serverLevel;
+                if (displayLevel == null || displayLevel.registryAccess() != level.registryAccess()) {
+                    if (displayLevel != null) {
+                        displayLevel.discard();
+                    }
+                    displayLevel = new TrophyDisplayLevel(level.registryAccess(), level.enabledFeatures(), level.isClientSide());
+                    if (level.isClientSide()) {
+                        clientLevel = displayLevel;
+                    } else {
+                        serverLevel = displayLevel;
+                    }
+                }
+            }
+        }
+        return displayLevel;
+    }
+
+    /**
+     * Drops the display level and its entities for a side, called when leaving a world
+     */
+    public static synchronized void unload(boolean isClientSide) {
+        TrophyDisplayLevel displayLevel = isClientSide ? clientLevel : serverLevel;
+        if (displayLevel != null) {
+            displayLevel.discard();
+        }
+        if (isClientSide) {
+            clientLevel = null;
+        } else {
+            serverLevel = null;
+        }
+    }
+
+    /**
+     * Drops the entities and pending builds of a display level that is no longer used
+     */
+    private void discard() {
+        isReplaced = true;
+        TrophyEntityBuildQueue.INSTANCE.removeLevel(this);
+        entityCache.clear();
+    }
+
+    /**
+     * Whether the display level was replaced or unloaded, nothing should be built in it anymore
+     */
+    public boolean isReplaced() {
+        return isReplaced;
+    }
+
+    public TrophyEntityCache getEntityCache() {
+        return entityCache;
+    }
+
+    @Override
+    public ChunkSource getChunkSource() {
+        return chunkSource;
+    }
+
+    @Override
+    protected LevelEntityGetter<Entity> getEntities() {
+        return EmptyEntityGetter.INSTANCE;
+    }
+
+    @Nullable
+    @Override
+    public Entity getEntity(int id) {
+        return null;
+    }
+
+    @Override
+    public List<? extends Player> players() {
+        return Collections.emptyList();
+    }
+
+    @Override
+    public LevelTickAccess<Block> getBlockTicks() {
+        return BlackholeTickAccess.emptyLevelList();
+    }
+
+    @Override
+    public LevelTickAccess<Fluid> getFluidTicks() {
+        return BlackholeTickAccess.emptyLevelList();
+    }
+
+    @Override
+    public Holder<Biome> getUncachedNoiseBiome(int x, int y, int z) {
+        return biome;
+    }
+
+    @Override
+    public float getShade(Direction direction, boolean shade) {
+        return 1.0F;
+    }
+
+    @Override
+    public FeatureFlagSet enabledFeatures() {
+        return enabledFeatures;
+    }
+
+    @Override
+    public Scoreboard getScoreboard() {
+        return scoreboard;
+    }
+
+    @Override
+    public RecipeManager getRecipeManager() {
+        return recipeManager;
+    }
+
+    @Override
+    public TickRateManager getTickRateManager() {
+        return tickRateManager;
+    }
+
+    @Override
+    public PotionBrewing potionBrewing() {
+        return PotionBrewing.EMPTY;
+    }
+
+    @Nullable
+    @Override
+    public MapItemSavedData getMapData(MapId mapId) {
+        return null;
+    }
+
+    @Override
+    public void setMapData(MapId mapId, MapItemSavedData mapData) {
+    }
+
+    @Override
+    public MapId getFreeMapId() {
+        return new MapId(0);
+    }
+
+    @Override
+    public void sendBlockUpdated(BlockPos pos, BlockState oldState, BlockState newState, int flags) {
+    }
+
+    @Override
+    public void playSeededSound(@Nullable Player player, double x, double y, double z, Holder<SoundEvent> sound, SoundSource source, float volume, float pitch, long seed) {
+    }
+
+    @Override
+    public void playSeededSound(@Nullable Player player, Entity entity, Holder<SoundEvent> sound, SoundSource source, float volume, float pitch, long seed) {
+    }
+
+    @Override
+    public void levelEvent(@Nullable Player player, int type, BlockPos pos, int data) {
+    }
+
+    @Override
+    public void gameEvent(Holder<GameEvent> gameEvent, Vec3 pos, GameEvent.Context context) {
+    }
+
+    @Override
+    public void destroyBlockProgress(int breakerId, BlockPos pos, int progress) {
+    }
+
+    @Override
+    public String gatherChunkSourceStats() {
+        return "Trophy display level";
+    }
+
+    // Day time speed hooks, the display level has no time
+    public void setDayTimeFraction(float dayTimeFraction) {
+    }
+
+    public float getDayTimeFraction() {
+        return 0.0F;
+    }
+
+    public float getDayTimePerTick() {
+        return 1.0F;
+    }
+
+    public void setDayTimePerTick(float dayTimePerTick) {
+    }
+
+    private static class DisplayChunkSource extends ChunkSource
+    {
+        private final TrophyDisplayLevel level;
+        private final EmptyLevelChunk chunk;
+        private final LevelLightEngine lightEngine;
+
+        private DisplayChunkSource(TrophyDisplayLevel level) {
+            this.level = level;
+            // Empty chunks hold no blocks, one instance serves every position
+            this.chunk = new EmptyLevelChunk(level, ChunkPos.ZERO, level.biome);
+            this.lightEngine = new LevelLightEngine(this, false, false);
+        }
+
+        @Nullable
+        @Override
+        public ChunkAccess getChunk(int x, int z, ChunkStatus status, boolean requireChunk) {
+            return chunk;
+        }
+
+        @Nullable
+        @Override
+        public LightChunk getChunkForLighting(int x, int z) {
+            return chunk;
+        }
+
+        @Override
+        public void tick(BooleanSupplier hasTimeLeft, boolean tickChunks) {
+        }
+
+        @Override
+        public String gatherStats() {
+            return "";
+        }
+
+        @Override
+        public int getLoadedChunksCount() {
+            return 0;
+        }
+
+        @Override
+        public LevelLightEngine getLightEngine() {
+            return lightEngine;
+        }
+
+        @Override
+        public BlockGetter getLevel() {
+            return level;
+        }
+    }
+
+    private static class EmptyEntityGetter implements LevelEntityGetter<Entity>
+    {
+        private static final EmptyEntityGetter INSTANCE = new EmptyEntityGetter();
+
+        @Nullable
+        @Override
+        public Entity get(int id) {
+            return null;
+        }
+
+        @Nullable
+        @Override
+        public Entity get(UUID uuid) {
+            return null;
+        }
+
+        @Override
+        public Iterable<Entity> getAll() {
+            return Collections.emptyList();
+        }
+
+        @Override
+        public <U extends Entity> void get(EntityTypeTest<Entity, U> test, AbortableIterationConsumer<U> consumer) {
+        }
+
+        @Override
+        public void get(AABB boundingBox, Consumer<Entity> consumer) {
+        }
+
+        @Override
+        public <U extends Entity> void get(EntityTypeTest<Entity, U> test, AABB bounds, AbortableIterationConsumer<U> consumer) {
+        }
+    }
+
+    private static class DisplayLevelData implements WritableLevelData
+    {
+        private final GameRules gameRules = new GameRules();
+
+        @Override
+        public BlockPos getSpawnPos() {
+            return BlockPos.ZERO;
+        }
+
+        @Override
+        public float getSpawnAngle() {
+            return 0.0F;
+        }
+
+        @Override
+        public void setSpawn(BlockPos pos, float angle) {
+        }
+
+        @Override
+        public long getGameTime() {
+            return 0;
+        }
+
+        @Override
+        public long getDayTime() {
+            return 6000;
+        }
+
+        @Override
+        public boolean isThundering() {
+            return false;
+        }
+
+        @Override
+        public boolean isRaining() {
+            return false;
+        }
+
+        @Override
+        public void setRaining(boolean raining) {
+        }
+
+        @Override
+        public boolean isHardcore() {
+            return false;
+        }
+
+        @Override
+        public GameRules getGameRules() {
+            return gameRules;
+        }
+
+        @Override
+        public Difficulty getDifficulty() {
+            return Difficulty.NORMAL;
+        }
+
+        @Override
+        public boolean isDifficultyLocked() {
+            return true;
+        }
+    }
+}
@@ -1,16 +1,19 @@
 package cy.jdkdigital.trophymanager.compat;
 
 import com.mojang.blaze3d.vertex.PoseStack;
+import cy.jdkdigital.trophymanager.client.render.item.DecodedTrophyCache;
+import cy.jdkdigital.trophymanager.client.render.item.TrophyIconAtlas;
+import cy.jdkdigital.trophymanager.client.render.item.WornTrophyBudget;
 import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
+import cy.jdkdigital.trophymanager.common.component.TrophyData;
 import cy.jdkdigital.trophymanager.init.ModBlocks;
+import cy.jdkdigital.trophymanager.init.ModDataComponents;
 import net.minecraft.client.Minecraft;
 import net.minecraft.client.model.EntityModel;
 import net.minecraft.client.model.HumanoidModel;
 import net.minecraft.client.renderer.MultiBufferSource;
 import net.minecraft.client.renderer.entity.RenderLayerParent;
 import net.minecraft.client.renderer.texture.OverlayTexture;
-import net.minecraft.core.BlockPos;
-import net.minecraft.core.component.DataComponents;
 import net.minecraft.world.entity.LivingEntity;
 import net.minecraft.world.item.ItemStack;
 import net.minecraft.world.level.block.Blocks;
@@ -31,22 +34,15 @@ public class CuriosCompat
 
     public static class Renderer implements ICurioRenderer
     {
-        TrophyBlockEntity blockEntity = null;
-
         @Override
         public <T extends LivingEntity, M extends EntityModel<T>> void render(ItemStack itemStack, SlotContext slotContext, PoseStack poseStack, RenderLayerParent<T, M> renderLayerParent, MultiBufferSource multiBufferSource, int packedLightIn, float limbSwing, float limbSwingAmount, float partialTicks, float ageInTicks, float netHeadYaw, float headPitch) {
-            if (!itemStack.has(DataComponents.CUSTOM_DATA)) {
+            TrophyData data = itemStack.get(ModDataComponents.TROPHY_DATA.get());
+            if (data == null) {
                 return;
             }
+            TrophyBlockEntity blockEntity = DecodedTrophyCache.INSTANCE.get(data, slotContext.identifier().equals("head"));
             if (blockEntity == null) {
-                blockEntity = new TrophyBlockEntity(BlockPos.ZERO, ModBlocks.TROPHY.get().defaultBlockState());
-            }
-            blockEntity.loadData(itemStack.get(DataComponents.CUSTOM_DATA).copyTag(), Minecraft.getInstance().level.registryAccess());
-            blockEntity.scale = 0.5f;
-
-            blockEntity.isOnHead = false;
-            if (slotContext.identifier().equals("head")) {
-                blockEntity.isOnHead = true;
+                return;
             }
 
             var contextModel = renderLayerParent.getModel();
@@ -60,7 +56,12 @@ public class CuriosCompat
             poseStack.translate(-0.35, 0.15, 0.35);
             poseStack.scale(0.70F, -0.70F, -0.70F);
 
-            Minecraft.getInstance().getBlockEntityRenderDispatcher().renderItem(blockEntity, poseStack, multiBufferSource, packedLightIn, OverlayTexture.NO_OVERLAY);
+            // Trophies over the budget are drawn as their icon, or not at all until it's ready
+            if (WornTrophyBudget.INSTANCE.isWithinBudget(blockEntity, poseStack)) {
+                Minecraft.getInstance().getBlockEntityRenderDispatcher().renderItem(blockEntity, poseStack, multiBufferSource, packedLightIn, OverlayTexture.NO_OVERLAY);
+            } else {
+                TrophyIconAtlas.INSTANCE.renderInWorld(data, blockEntity, poseStack, multiBufferSource, packedLightIn, false);
+            }
 
             poseStack.popPose();
         }
@@ -0,0 +1,16 @@
+package cy.jdkdigital.trophymanager.init;
+
+import cy.jdkdigital.trophymanager.TrophyManager;
+import cy.jdkdigital.trophymanager.common.component.TrophyData;
+import net.minecraft.core.component.DataComponentType;
+import net.minecraft.core.registries.Registries;
+import net.neoforged.neoforge.registries.DeferredHolder;
+import net.neoforged.neoforge.registries.DeferredRegister;
+
+public final class ModDataComponents
+{
+    public static final DeferredRegister.DataComponents DATA_COMPONENTS = DeferredRegister.createDataComponents(Registries.DATA_COMPONENT_TYPE, TrophyManager.MODID);
+
+    public static final DeferredHolder<DataComponentType<?>, DataComponentType<TrophyData>> TROPHY_DATA
+            = DATA_COMPONENTS.registerComponentType("trophy_data", builder -> builder.persistent(TrophyData.CODEC).networkSynchronized(TrophyData.STREAM_CODEC).cacheEncoding());
+}
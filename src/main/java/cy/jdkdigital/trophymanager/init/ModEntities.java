@@ -12,5 +12,5 @@ public final class ModEntities
 {
     public static final DeferredRegister<EntityType<?>> ENTITIES = DeferredRegister.create(BuiltInRegistries.ENTITY_TYPE, TrophyManager.MODID);
 
-    public static final DeferredHolder<EntityType<?>, EntityType<RenderPlayer>> PLAYER = ENTITIES.register("player", () -> EntityType.Builder.of(RenderPlayer::new, MobCategory.MISC).build(TrophyManager.MODID + ":player"));
+    public static final DeferredHolder<EntityType<?>, EntityType<RenderPlayer>> PLAYER = ENTITIES.register("player", () -> EntityType.Builder.of(RenderPlayer::new, MobCategory.MISC).sized(0.6F, 1.8F).noSummon().build(TrophyManager.MODID + ":player"));
 }
@@ -6,6 +6,7 @@ import cy.jdkdigital.trophymanager.common.blockentity.TrophyBlockEntity;
 import io.netty.buffer.ByteBuf;
 import net.minecraft.core.BlockPos;
 import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtAccounter;
 import net.minecraft.network.codec.ByteBufCodecs;
 import net.minecraft.network.codec.StreamCodec;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
@@ -19,7 +20,8 @@ public record PacketUpdateTrophy(BlockPos pos, CompoundTag tag) implements Custo
     public static final StreamCodec<ByteBuf, PacketUpdateTrophy> STREAM_CODEC = StreamCodec.composite(
             ByteBufCodecs.fromCodec(BlockPos.CODEC),
             PacketUpdateTrophy::pos,
-            ByteBufCodecs.fromCodec(CompoundTag.CODEC),
+            // Only carries the offset and scale, anything bigger is rejected while decoding
+            ByteBufCodecs.compoundTagCodec(() -> NbtAccounter.create(4096L)),
             PacketUpdateTrophy::tag,
             PacketUpdateTrophy::new
     );
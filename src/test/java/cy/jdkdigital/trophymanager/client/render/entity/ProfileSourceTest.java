@@ -0,0 +1,94 @@
+package cy.jdkdigital.trophymanager.client.render.entity;
+
+import com.mojang.authlib.GameProfile;
+import com.mojang.authlib.properties.Property;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Profile lookups against local stand-ins for the session server, no network access
+ */
+class ProfileSourceTest
+{
+    private static final UUID PLAYER = UUID.fromString("069a79f4-44e9-4726-a5be-fca90e38aaf5");
+    private static final long MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
+    @TempDir
+    Path cache;
+    @TempDir
+    Path standIn;
+
+    @Test
+    void offlineProfilesHaveNoSkin() {
+        Optional<GameProfile> profile = ProfileSource.offline().fetch(PLAYER);
+
+        assertTrue(profile.isPresent());
+        assertEquals(PLAYER, profile.get().getId());
+        assertTrue(profile.get().getProperties().isEmpty());
+    }
+
+    @Test
+    void directoryReadsProfilesInCacheFormat() {
+        GameProfile profile = createProfile();
+        ProfileSource.cached(uuid -> Optional.of(profile), standIn, MAX_AGE).fetch(PLAYER);
+
+        assertProfile(profile, ProfileSource.directory(standIn).fetch(PLAYER));
+        assertTrue(ProfileSource.directory(standIn).fetch(UUID.randomUUID()).isEmpty());
+    }
+
+    @Test
+    void freshProfilesAreNotFetchedAgain() {
+        GameProfile profile = createProfile();
+        AtomicInteger fetches = new AtomicInteger();
+        ProfileSource source = ProfileSource.cached(uuid -> {
+            fetches.incrementAndGet();
+            return Optional.of(profile);
+        }, cache, MAX_AGE);
+
+        assertProfile(profile, source.fetch(PLAYER));
+        assertProfile(profile, source.fetch(PLAYER));
+        assertEquals(1, fetches.get());
+    }
+
+    @Test
+    void staleProfilesAreUsedWhenTheLookupFails() {
+        GameProfile profile = createProfile();
+        ProfileSource.cached(uuid -> Optional.of(profile), cache, 0).fetch(PLAYER);
+
+        assertProfile(profile, ProfileSource.cached(uuid -> Optional.empty(), cache, 0).fetch(PLAYER));
+    }
+
+    @Test
+    void failedLookupsAreNotCached() throws IOException {
+        assertTrue(ProfileSource.cached(ProfileSource.directory(standIn), cache, MAX_AGE).fetch(PLAYER).isEmpty());
+
+        try (var files = Files.list(cache)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    private static GameProfile createProfile() {
+        GameProfile profile = new GameProfile(PLAYER, "jeb_");
+        profile.getProperties().put("textures", new Property("textures", "e30="));
+        return profile;
+    }
+
+    private static void assertProfile(GameProfile expected, Optional<GameProfile> actual) {
+        assertTrue(actual.isPresent());
+        assertEquals(expected.getId(), actual.get().getId());
+        assertEquals(expected.getName(), actual.get().getName());
+        assertEquals(List.copyOf(expected.getProperties().values()), List.copyOf(actual.get().getProperties().values()));
+    }
+}